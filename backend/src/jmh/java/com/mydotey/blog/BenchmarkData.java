@@ -0,0 +1,58 @@
+package com.mydotey.blog;
+
+import com.mydotey.blog.entity.Post;
+import com.mydotey.blog.entity.Tag;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试用的合成数据，固定随机种子保证每次运行输入一致。
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+        "spring", "java", "性能", "优化", "缓存", "数据库", "索引", "线程", "virtual", "thread",
+        "jackson", "序列化", "postgres", "查询", "分页", "gradle", "jmh", "基准", "测试", "延迟",
+        "吞吐量", "内存", "gc", "hibernate", "连接池", "token", "jwt", "安全", "限流", "搜索"
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static Post post(long id, int contentWords, Random random) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle("文章 " + id + " " + words(6, random));
+        post.setSlug("post-" + id);
+        post.setSummary(words(20, random));
+        post.setContent(words(contentWords, random));
+        post.setStatus("PUBLISHED");
+        post.setViews((long) random.nextInt(10_000));
+        post.setCreatedAt(LocalDateTime.of(2026, 1, 1, 0, 0).plusHours(id));
+        post.setUpdatedAt(post.getCreatedAt());
+        Set<Tag> tags = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Tag tag = new Tag();
+            tag.setId((long) random.nextInt(WORDS.length));
+            tag.setName(WORDS[tag.getId().intValue()]);
+            tag.setSlug(tag.getName());
+            tags.add(tag);
+        }
+        post.setTags(tags);
+        return post;
+    }
+
+    public static String words(int count, Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+}
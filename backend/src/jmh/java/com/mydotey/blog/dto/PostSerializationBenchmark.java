@@ -0,0 +1,76 @@
+package com.mydotey.blog.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mydotey.blog.BenchmarkData;
+import com.mydotey.blog.entity.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章列表分页和文章详情的 JSON 序列化，ObjectMapper 与 Spring Boot 默认配置一致。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PostSerializationBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<PostSummaryDTO> page;
+    private PostDTO post;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Random random = new Random(42);
+        List<PostSummaryDTO> content = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            Post p = BenchmarkData.post(i, 0, random);
+            PostSummaryDTO summary = new PostSummaryDTO(p.getId(), p.getTitle(), p.getSlug(), p.getSummary(),
+                null, p.getStatus(), p.getViews(), p.getCreatedAt(), p.getUpdatedAt());
+            summary.setTags(Set.of("java", "spring"));
+            content.add(summary);
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, pageSize), 1000);
+
+        Post p = BenchmarkData.post(1, 2000, random);
+        post = new PostDTO();
+        post.setId(p.getId());
+        post.setTitle(p.getTitle());
+        post.setSlug(p.getSlug());
+        post.setContent(p.getContent());
+        post.setSummary(p.getSummary());
+        post.setStatus(p.getStatus());
+        post.setViews(p.getViews());
+        post.setCreatedAt(p.getCreatedAt());
+        post.setUpdatedAt(p.getUpdatedAt());
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] postDetail() throws Exception {
+        return objectMapper.writeValueAsBytes(post);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mydotey.blog.filter;
+
+import com.mydotey.blog.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个请求都会经过的 JWT 过滤器：带有效 token（命中验签缓存 / 关闭缓存每次验签）和不带 token 三种情况。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-0123456789";
+
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 86_400_000L, 10_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        filter = new JwtAuthenticationFilter(jwtUtil);
+        // 缓存有效期为 0，验签结果写入后立即过期，每次请求都完整解析和验签
+        uncachedFilter = new JwtAuthenticationFilter(
+            new JwtUtil(SECRET, 86_400_000L, 10_000, Duration.ZERO, new SimpleMeterRegistry()));
+        authorization = "Bearer " + jwtUtil.generateToken("admin", 1L);
+    }
+
+    @Benchmark
+    public Object withToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/posts");
+        request.addHeader("Authorization", authorization);
+        return run(filter, request);
+    }
+
+    @Benchmark
+    public Object withTokenUncached() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/posts");
+        request.addHeader("Authorization", authorization);
+        return run(uncachedFilter, request);
+    }
+
+    @Benchmark
+    public Object anonymous() throws Exception {
+        return run(filter, new MockHttpServletRequest("GET", "/api/posts"));
+    }
+
+    private static Object run(JwtAuthenticationFilter filter, MockHttpServletRequest request) throws Exception {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
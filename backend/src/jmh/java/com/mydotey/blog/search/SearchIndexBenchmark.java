@@ -0,0 +1,57 @@
+package com.mydotey.blog.search;
+
+import com.mydotey.blog.BenchmarkData;
+import com.mydotey.blog.entity.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 关键字搜索路径：分词和倒排索引查询，语料为合成文章。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+    @Param({"1000", "10000"})
+    public int posts;
+
+    private SearchIndex index;
+    private String content;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        index = new SearchIndex(null, "");
+        for (long id = 1; id <= posts; id++) {
+            index.index(BenchmarkData.post(id, 300, random));
+        }
+        Post sample = BenchmarkData.post(0, 2000, random);
+        content = sample.getContent();
+    }
+
+    @Benchmark
+    public List<Long> singleTerm() {
+        return index.search("spring");
+    }
+
+    @Benchmark
+    public List<Long> twoTerms() {
+        return index.search("性能 优化");
+    }
+
+    @Benchmark
+    public List<String> tokenize() {
+        return Tokenizer.tokenize(content);
+    }
+}
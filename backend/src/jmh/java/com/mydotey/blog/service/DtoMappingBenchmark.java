@@ -0,0 +1,52 @@
+package com.mydotey.blog.service;
+
+import com.mydotey.blog.BenchmarkData;
+import com.mydotey.blog.dto.CommentDTO;
+import com.mydotey.blog.dto.PostDTO;
+import com.mydotey.blog.entity.Comment;
+import com.mydotey.blog.entity.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 实体到 DTO 的映射开销。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    private Post post;
+    private Comment comment;
+
+    @Setup
+    public void setup() {
+        post = BenchmarkData.post(1, 2000, new Random(42));
+        comment = new Comment();
+        comment.setId(1L);
+        comment.setPostId(1L);
+        comment.setAuthorName("读者");
+        comment.setContent("写得很好，学到了");
+        comment.setStatus("APPROVED");
+        comment.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public PostDTO postToDTO() {
+        return PostService.toDTO(post);
+    }
+
+    @Benchmark
+    public CommentDTO commentToDTO() {
+        return CommentService.toDTO(comment);
+    }
+}
@@ -0,0 +1,36 @@
+package com.mydotey.blog.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 标签 slug 生成：PostService/TagService 中的 String.replaceAll 与预编译 Pattern 对比。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TagSlugBenchmark {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Param({"Java", "Spring Boot Performance Tuning"})
+    public String name;
+
+    @Benchmark
+    public String replaceAll() {
+        return name.toLowerCase().replaceAll("\\s+", "-");
+    }
+
+    @Benchmark
+    public String precompiled() {
+        return WHITESPACE.matcher(name.toLowerCase()).replaceAll("-");
+    }
+}
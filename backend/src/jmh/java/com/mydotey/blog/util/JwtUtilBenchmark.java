@@ -0,0 +1,49 @@
+package com.mydotey.blog.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 签发与校验。parse 是每次完整解析验签，authenticateCached 是命中已验签缓存的路径。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtUtilBenchmark {
+
+    static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-0123456789";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil(SECRET, 86_400_000L, 10_000, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        token = jwtUtil.generateToken("admin", 1L);
+        jwtUtil.authenticate(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("admin", 1L);
+    }
+
+    @Benchmark
+    public Object parse() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public String authenticateCached() {
+        return jwtUtil.authenticate(token);
+    }
+}
@@ -0,0 +1,167 @@
+package com.mydotey.blog.loadtest;
+
+import com.mydotey.blog.entity.Comment;
+import com.mydotey.blog.entity.Post;
+import com.mydotey.blog.entity.Tag;
+import com.mydotey.blog.repository.CommentRepository;
+import com.mydotey.blog.repository.PostRepository;
+import com.mydotey.blog.repository.TagRepository;
+import com.mydotey.blog.search.RelatedPosts;
+import com.mydotey.blog.search.SearchIndex;
+import com.mydotey.blog.service.PostRenderer;
+import com.mydotey.blog.service.TagCatalog;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 生成压测数据。正文长度、每篇评论数按对数正态分布，标签使用频率按 Zipf 分布，
+ * 约三成评论是对同一文章已有评论的回复。
+ */
+class DataGenerator {
+
+    record SeededPost(Long id, String slug, String title, String summary, List<String> tagNames) {
+    }
+
+    record Dataset(List<SeededPost> posts, List<String> tagSlugs, List<String> searchTerms) {
+    }
+
+    private static final String[] WORDS = {
+        "spring", "java", "性能", "优化", "缓存", "数据库", "索引", "线程", "virtual", "thread",
+        "jackson", "序列化", "postgres", "查询", "分页", "gradle", "jmh", "基准", "测试", "延迟",
+        "吞吐量", "内存", "gc", "hibernate", "连接池", "token", "jwt", "安全", "限流", "搜索",
+        "vue", "前端", "组件", "路由", "构建", "部署", "容器", "日志", "监控", "告警"
+    };
+
+    private static final int BATCH_SIZE = 200;
+
+    private final ApplicationContext context;
+    private final LoadTestOptions options;
+    private final Random random;
+
+    DataGenerator(ApplicationContext context, LoadTestOptions options) {
+        this.context = context;
+        this.options = options;
+        this.random = new Random(options.seed());
+    }
+
+    Dataset generate() {
+        TransactionTemplate tx = context.getBean(TransactionTemplate.class);
+        TagRepository tagRepository = context.getBean(TagRepository.class);
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+        PostRenderer postRenderer = context.getBean(PostRenderer.class);
+
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < options.tags(); i++) {
+            Tag tag = new Tag();
+            tag.setName("tag-" + i);
+            tag.setSlug("tag-" + i);
+            tags.add(tag);
+        }
+        List<Tag> savedTags = tx.execute(status -> tagRepository.saveAll(tags));
+
+        List<SeededPost> seeded = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusDays(options.posts());
+        for (int offset = 0; offset < options.posts(); offset += BATCH_SIZE) {
+            List<Post> batch = new ArrayList<>();
+            for (int i = offset; i < Math.min(offset + BATCH_SIZE, options.posts()); i++) {
+                Post post = new Post();
+                post.setTitle(sentence(4 + random.nextInt(8)));
+                post.setSlug("post-" + i);
+                post.setSummary(sentence(20 + random.nextInt(30)));
+                post.setContent(markdown(logNormal(800, 0.8, 50, 20_000)));
+                post.setStatus(random.nextInt(10) == 0 ? "DRAFT" : "PUBLISHED");
+                post.setCreatedAt(start.plusDays(i).plusMinutes(random.nextInt(1440)));
+                post.setUpdatedAt(post.getCreatedAt());
+                Set<Tag> postTags = new HashSet<>();
+                int tagCount = 1 + random.nextInt(4);
+                while (postTags.size() < Math.min(tagCount, savedTags.size())) {
+                    postTags.add(savedTags.get(zipf(savedTags.size())));
+                }
+                post.setTags(postTags);
+                postRenderer.apply(post);
+                batch.add(post);
+            }
+            for (Post post : tx.execute(status -> postRepository.saveAll(batch))) {
+                if ("PUBLISHED".equals(post.getStatus())) {
+                    seeded.add(new SeededPost(post.getId(), post.getSlug(), post.getTitle(), post.getSummary(),
+                        post.getTags().stream().map(Tag::getName).toList()));
+                }
+            }
+        }
+
+        for (SeededPost post : seeded) {
+            int count = logNormal(options.commentsPerPost(), 1.0, 0, options.commentsPerPost() * 20);
+            List<Comment> roots = new ArrayList<>();
+            List<Comment> replies = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                Comment comment = new Comment();
+                comment.setPostId(post.id());
+                comment.setAuthorName("读者" + random.nextInt(1000));
+                comment.setContent(sentence(5 + random.nextInt(60)));
+                comment.setStatus(random.nextInt(10) == 0 ? "PENDING" : "APPROVED");
+                comment.setCreatedAt(LocalDateTime.now().minusMinutes(count - i));
+                (roots.isEmpty() || random.nextInt(10) >= 3 ? roots : replies).add(comment);
+            }
+            tx.executeWithoutResult(status -> {
+                List<Comment> savedRoots = commentRepository.saveAll(roots);
+                for (Comment reply : replies) {
+                    reply.setParentId(savedRoots.get(random.nextInt(savedRoots.size())).getId());
+                }
+                commentRepository.saveAll(replies);
+            });
+        }
+
+        // 数据是绕过 PostService 直接写入的，需要手动刷新内存中的派生数据
+        context.getBean(TagCatalog.class).refresh();
+        context.getBean(SearchIndex.class).rebuild();
+        context.getBean(RelatedPosts.class).rebuild();
+
+        List<String> searchTerms = List.of("性能", "spring", "缓存 数据库", "jwt", "virtual thread", "优化");
+        return new Dataset(seeded, savedTags.stream().map(Tag::getSlug).toList(), searchTerms);
+    }
+
+    private String markdown(int words) {
+        StringBuilder text = new StringBuilder();
+        int written = 0;
+        int section = 1;
+        while (written < words) {
+            text.append("## ").append(section++).append(' ').append(sentence(3)).append("\n\n");
+            int paragraph = Math.min(words - written, 40 + random.nextInt(120));
+            text.append(sentence(paragraph)).append("\n\n");
+            written += paragraph;
+            if (random.nextInt(3) == 0) {
+                text.append("```java\nfor (int i = 0; i < n; i++) {\n    total += values[i];\n}\n```\n\n");
+            }
+        }
+        return text.toString();
+    }
+
+    private String sentence(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[zipf(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private int logNormal(double median, double sigma, int min, int max) {
+        long value = Math.round(median * Math.exp(sigma * random.nextGaussian()));
+        return (int) Math.max(min, Math.min(max, value));
+    }
+
+    // 近似 Zipf(s=1)：下标越小出现越频繁
+    private int zipf(int n) {
+        return (int) Math.min(n - 1, Math.floor(Math.pow(n + 1, random.nextDouble()) - 1));
+    }
+}
@@ -0,0 +1,108 @@
+package com.mydotey.blog.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mydotey.blog.BlogApplication;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 端到端压测：以 loadtest profile 启动应用，生成数据，在同一进程内用虚拟线程客户端施加混合负载，
+ * 输出每个接口的吞吐量和延迟百分位。运行方式见 ./gradlew loadTest。
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogApplication.class)
+            .profiles("loadtest")
+            .run(args);
+        int exitCode = 0;
+        try {
+            run(context);
+        } catch (Exception e) {
+            e.printStackTrace();
+            exitCode = 1;
+        } finally {
+            SpringApplication.exit(context);
+        }
+        System.exit(exitCode);
+    }
+
+    private static void run(ConfigurableApplicationContext context) throws Exception {
+        LoadTestOptions options = LoadTestOptions.from(context.getEnvironment());
+        ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+        String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        long seedStart = System.nanoTime();
+        DataGenerator.Dataset dataset = new DataGenerator(context, options).generate();
+        System.out.printf("Seeded %d published posts, %d tags in %d ms%n",
+            dataset.posts().size(), dataset.tagSlugs().size(), (System.nanoTime() - seedStart) / 1_000_000);
+
+        Workload workload = new Workload(baseUrl, login(baseUrl, objectMapper), dataset, objectMapper);
+        System.out.printf("Running %d clients: %s warmup, %s measured%n",
+            options.concurrency(), options.warmup(), options.duration());
+        long elapsed = workload.run(options.concurrency(), options.warmup(), options.duration());
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        System.out.printf("%n%-36s %9s %7s %9s %8s %8s %8s %8s %8s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        workload.stats().forEach((name, stats) -> {
+            Histogram h = stats.latency;
+            double throughput = h.getTotalCount() * 1e9 / elapsed;
+            System.out.printf("%-36s %9d %7d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f%n", name, h.getTotalCount(),
+                stats.errors.sum(), throughput, ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(90)),
+                ms(h.getValueAtPercentile(99)), ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", name);
+            row.put("requests", h.getTotalCount());
+            row.put("errors", stats.errors.sum());
+            row.put("throughput", throughput);
+            row.put("p50Ms", ms(h.getValueAtPercentile(50)));
+            row.put("p90Ms", ms(h.getValueAtPercentile(90)));
+            row.put("p99Ms", ms(h.getValueAtPercentile(99)));
+            row.put("p999Ms", ms(h.getValueAtPercentile(99.9)));
+            row.put("maxMs", ms(h.getMaxValue()));
+            rows.add(row);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", options);
+        report.put("elapsedSeconds", elapsed / 1e9);
+        report.put("endpoints", rows);
+        Files.createDirectories(options.report().toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(options.report().toFile(), report);
+        System.out.printf("%nReport written to %s%n", options.report().toAbsolutePath());
+    }
+
+    private static String login(String baseUrl, ObjectMapper objectMapper) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+            .build();
+        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,34 @@
+package com.mydotey.blog.loadtest;
+
+import org.springframework.core.env.Environment;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 压测参数，均可通过 --loadtest.xxx=... 覆盖。
+ */
+record LoadTestOptions(
+    int posts,
+    int tags,
+    int commentsPerPost,
+    int concurrency,
+    Duration warmup,
+    Duration duration,
+    long seed,
+    Path report
+) {
+
+    static LoadTestOptions from(Environment env) {
+        return new LoadTestOptions(
+            env.getProperty("loadtest.posts", Integer.class, 1000),
+            env.getProperty("loadtest.tags", Integer.class, 50),
+            env.getProperty("loadtest.comments-per-post", Integer.class, 8),
+            env.getProperty("loadtest.concurrency", Integer.class, 32),
+            env.getProperty("loadtest.warmup", Duration.class, Duration.ofSeconds(10)),
+            env.getProperty("loadtest.duration", Duration.class, Duration.ofSeconds(30)),
+            env.getProperty("loadtest.seed", Long.class, 42L),
+            Path.of(env.getProperty("loadtest.report", "build/reports/loadtest/report.json"))
+        );
+    }
+}
@@ -0,0 +1,201 @@
+package com.mydotey.blog.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 混合读写负载：每个虚拟线程循环按权重挑选一个接口请求，按接口分别记录延迟直方图。
+ */
+class Workload {
+
+    interface Call {
+        HttpRequest build(ThreadLocalRandom random);
+    }
+
+    record Operation(String name, int weight, Call call) {
+    }
+
+    static final class Stats {
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.SECONDS.toNanos(60), 3);
+        final LongAdder errors = new LongAdder();
+
+        void reset() {
+            latency.reset();
+            errors.reset();
+        }
+    }
+
+    private final HttpClient client;
+    private final List<Operation> operations;
+    private final int totalWeight;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    Workload(String baseUrl, String token, DataGenerator.Dataset dataset, ObjectMapper objectMapper) {
+        this.client = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        this.operations = operations(baseUrl, token, dataset, objectMapper);
+        int weight = 0;
+        for (Operation operation : operations) {
+            weight += operation.weight();
+            stats.put(operation.name(), new Stats());
+        }
+        this.totalWeight = weight;
+    }
+
+    /**
+     * 先预热 warmup 时长并丢弃结果，再正式运行 duration，返回实际计时的纳秒数。
+     */
+    long run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        runFor(concurrency, warmup);
+        stats.values().forEach(Stats::reset);
+        long start = System.nanoTime();
+        runFor(concurrency, duration);
+        return System.nanoTime() - start;
+    }
+
+    Map<String, Stats> stats() {
+        return stats;
+    }
+
+    private void runFor(int concurrency, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        step();
+                    }
+                });
+            }
+        }
+    }
+
+    private void step() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Operation operation = pick(random.nextInt(totalWeight));
+        Stats target = stats.get(operation.name());
+        HttpRequest request = operation.call().build(random);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            target.latency.recordValue(System.nanoTime() - start);
+            if (response.statusCode() >= 400) {
+                target.errors.increment();
+            }
+        } catch (IOException e) {
+            target.latency.recordValue(System.nanoTime() - start);
+            target.errors.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Operation pick(int value) {
+        for (Operation operation : operations) {
+            value -= operation.weight();
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private static List<Operation> operations(String baseUrl, String token, DataGenerator.Dataset dataset,
+                                              ObjectMapper objectMapper) {
+        List<DataGenerator.SeededPost> posts = dataset.posts();
+        int pages = Math.max(1, posts.size() / 10);
+        List<Operation> operations = new ArrayList<>();
+
+        operations.add(new Operation("GET /api/posts", 25,
+            random -> get(baseUrl + "/api/posts?page=" + skewedPage(random, pages), null)));
+        operations.add(new Operation("GET /api/posts?after", 10,
+            random -> get(baseUrl + "/api/posts?after=&size=10", null)));
+        operations.add(new Operation("GET /api/posts/{slug}", 25,
+            random -> get(baseUrl + "/api/posts/" + posts.get(random.nextInt(posts.size())).slug(), null)));
+        operations.add(new Operation("GET /api/posts/{slug}?format=html", 10,
+            random -> get(baseUrl + "/api/posts/" + posts.get(random.nextInt(posts.size())).slug() + "?format=html", null)));
+        operations.add(new Operation("GET /api/posts?tag", 8,
+            random -> get(baseUrl + "/api/posts?tag=" + dataset.tagSlugs().get(random.nextInt(dataset.tagSlugs().size())), null)));
+        operations.add(new Operation("GET /api/posts?search", 5,
+            random -> get(baseUrl + "/api/posts?search="
+                + encode(dataset.searchTerms().get(random.nextInt(dataset.searchTerms().size()))), null)));
+        operations.add(new Operation("GET /api/tags", 5,
+            random -> get(baseUrl + "/api/tags", null)));
+        operations.add(new Operation("GET /api/comments/tree", 8,
+            random -> get(baseUrl + "/api/comments/tree?postId=" + posts.get(random.nextInt(posts.size())).id(), null)));
+        operations.add(new Operation("POST /api/comments", 2,
+            random -> json(baseUrl + "/api/comments", "POST", null, objectMapper, Map.of(
+                "postId", posts.get(random.nextInt(posts.size())).id(),
+                "authorName", "压测",
+                "content", "压测评论 " + random.nextLong()))));
+        operations.add(new Operation("GET /api/admin/posts", 1,
+            random -> get(baseUrl + "/api/admin/posts?page=" + random.nextInt(pages), token)));
+        operations.add(new Operation("GET /api/admin/comments", 1,
+            random -> get(baseUrl + "/api/admin/comments?page=" + random.nextInt(pages), token)));
+        operations.add(new Operation("PUT /api/admin/posts/{id}", 1, random -> {
+            DataGenerator.SeededPost post = posts.get(random.nextInt(posts.size()));
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("title", post.title());
+            body.put("slug", post.slug());
+            body.put("summary", post.summary());
+            body.put("content", "## 更新\n\n压测更新 " + random.nextLong());
+            body.put("status", "PUBLISHED");
+            body.put("tagNames", post.tagNames());
+            return json(baseUrl + "/api/admin/posts/" + post.id(), "PUT", token, objectMapper, body);
+        }));
+        return operations;
+    }
+
+    // 大部分读者只看前几页
+    private static int skewedPage(ThreadLocalRandom random, int pages) {
+        return random.nextInt(10) < 8 ? random.nextInt(Math.min(3, pages)) : random.nextInt(pages);
+    }
+
+    private static HttpRequest get(String url, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static HttpRequest json(String url, String method, String token, ObjectMapper objectMapper, Object body) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -1,13 +1,27 @@
 package com.mydotey.blog;
 
+import com.mydotey.blog.export.StaticExportRunner;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BlogApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(BlogApplication.class, args);
+        SpringApplication application = new SpringApplication(BlogApplication.class);
+        // 静态导出模式不启动 Web 服务器，导出完成后直接退出
+        boolean exportMode = StaticExportRunner.isExportMode(args);
+        if (exportMode) {
+            application.setWebApplicationType(WebApplicationType.NONE);
+        }
+        ConfigurableApplicationContext context = application.run(args);
+        if (exportMode) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
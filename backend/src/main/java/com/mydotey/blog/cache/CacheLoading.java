@@ -0,0 +1,42 @@
+package com.mydotey.blog.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.mydotey.blog.config.ReplicaReads;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * 在调用线程上加载缓存项，而不是在 Caffeine 的 compute 锁里加载。
+ * 同步 Cache.get 会在 ConcurrentHashMap 的 synchronized 段里执行查库，在 Java 21 上会钉住虚拟线程的载体线程；
+ * 这里锁内只放入一个未完成的 future，同一个 key 的并发请求仍只加载一次，其余请求在 future 上等待。
+ * 加载总是读主库（{@link ReplicaReads#onPrimary}），不会把副本上的旧数据放进缓存。
+ */
+public final class CacheLoading {
+
+    private CacheLoading() {
+    }
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Supplier<? extends V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(ReplicaReads.onPrimary(loader));
+            } catch (RuntimeException | Error e) {
+                // 失败的 future 会被 Caffeine 自动移出缓存
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
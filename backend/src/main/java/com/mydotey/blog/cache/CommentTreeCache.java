@@ -0,0 +1,58 @@
+package com.mydotey.blog.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mydotey.blog.entity.Comment;
+import com.mydotey.blog.service.CommentTree;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 按文章缓存已审核评论树。审核通过、撤回评论时只更新对应文章已缓存的树，不重新查库；删除评论时丢弃该文章的树。
+ */
+@Component
+public class CommentTreeCache {
+
+    private final AsyncCache<Long, CommentTree> cache;
+
+    public CommentTreeCache(MeterRegistry meterRegistry, @Value("${blog.comment-tree.max-posts:1000}") long maxPosts) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxPosts)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "commentTrees");
+    }
+
+    public CommentTree get(Long postId, Supplier<CommentTree> loader) {
+        return CacheLoading.get(cache, postId, loader);
+    }
+
+    public void approved(Comment comment) {
+        update(comment.getPostId(), tree -> tree.with(comment));
+    }
+
+    public void unapproved(Comment comment) {
+        update(comment.getPostId(), tree -> tree.without(comment.getId(), false));
+    }
+
+    /**
+     * 数据库按 parent_id 级联删除所有回复，其中可能隔着未审核的评论，缓存的树里看不到这层父子关系，
+     * 所以不论被删评论是否已审核，都丢弃整棵树，下次请求重新加载。
+     */
+    public void deleted(Comment comment) {
+        cache.synchronous().invalidate(comment.getPostId());
+    }
+
+    // 正在加载中的树可能读到变更前的数据，直接丢弃，下次请求重新加载
+    private void update(Long postId, UnaryOperator<CommentTree> change) {
+        cache.asMap().computeIfPresent(postId, (id, future) -> future.isDone() && !future.isCompletedExceptionally()
+            ? CompletableFuture.completedFuture(change.apply(future.join()))
+            : null);
+    }
+}
@@ -0,0 +1,104 @@
+package com.mydotey.blog.cache;
+
+import com.mydotey.blog.config.ReplicaReads;
+import com.mydotey.blog.repository.PostRepository;
+import com.mydotey.blog.service.PostChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 公开接口条件请求（ETag / Last-Modified）用的版本信息。文章按 slug 记录 id 和更新时间，
+ * 列表和标签各有一个版本号，文章变更时递增。校验请求只查这里，不加载文章内容。
+ */
+@Component
+public class ContentVersions {
+
+    /**
+     * weak 为 true 时 ETag 只标识内容版本，不保证字节相同：文章和列表里的阅读数会随计数刷新变化，
+     * 版本号却不变，只能作为弱校验器。
+     */
+    public record Version(Long postId, String etag, long lastModified, boolean weak) {
+
+        // 同一内容的不同表示（如 HTML 正文）使用不同的 ETag
+        public Version variant(String suffix) {
+            return new Version(postId, etag + "-" + suffix, lastModified, weak);
+        }
+
+        // 响应头里的 ETag 值
+        public String header() {
+            return (weak ? "W/\"" : "\"") + etag + "\"";
+        }
+    }
+
+    private final PostRepository postRepository;
+    // 版本号在重启后从 0 开始，带上启动时间避免与重启前发出的 ETag 相同
+    private final long epoch = System.currentTimeMillis();
+    private final Map<String, Version> posts = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong listVersion = new AtomicLong();
+    private final AtomicLong tagsVersion = new AtomicLong();
+    private volatile long listModified = epoch;
+    private volatile long tagsModified = epoch;
+
+    public ContentVersions(PostRepository postRepository) {
+        this.postRepository = postRepository;
+    }
+
+    /**
+     * 已发布文章的版本，文章不存在或未发布时返回 null。
+     */
+    public Version post(String slug) {
+        Version version = posts.get(slug);
+        if (version != null) {
+            return version;
+        }
+        long observed = generation.get();
+        // 结果会一直留在表里，从主库读，避免记下副本上落后的版本
+        version = ReplicaReads.onPrimary(() -> postRepository.findPublishedVersionBySlug(slug))
+            .map(v -> {
+                long updatedAt = v.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                return new Version(v.getId(), "p" + v.getId() + "-" + updatedAt, updatedAt, true);
+            })
+            .orElse(null);
+        // 查询期间有文章变更时不写入，避免把变更前的版本留在表里
+        if (version != null && generation.get() == observed) {
+            posts.putIfAbsent(slug, version);
+        }
+        return version;
+    }
+
+    public Version list() {
+        return new Version(null, "l" + epoch + "-" + listVersion.get(), listModified, true);
+    }
+
+    public Version tags() {
+        return new Version(null, "t" + epoch + "-" + tagsVersion.get(), tagsModified, false);
+    }
+
+    public void tagsChanged() {
+        tagsModified = System.currentTimeMillis();
+        tagsVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        generation.incrementAndGet();
+        if (event.before() != null) {
+            posts.remove(event.before().slug());
+        }
+        if (event.after() != null) {
+            posts.remove(event.after().slug());
+        }
+        if (event.affectsPublished()) {
+            listModified = System.currentTimeMillis();
+            listVersion.incrementAndGet();
+        }
+        // 保存文章时可能新建标签
+        tagsChanged();
+    }
+}
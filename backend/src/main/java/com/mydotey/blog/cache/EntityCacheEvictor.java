@@ -0,0 +1,60 @@
+package com.mydotey.blog.cache;
+
+import com.mydotey.blog.config.EntityCacheConfig;
+import com.mydotey.blog.entity.Post;
+import com.mydotey.blog.entity.Tag;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+
+/**
+ * 绕过 Hibernate 直接用 JDBC 写库（浏览量、渲染回填、标签批量插入和清理）之后，
+ * 把受影响的数据从二级缓存移除。经 Hibernate 的写入由 Hibernate 自己维护缓存，不需要调用这里。
+ */
+@Component
+public class EntityCacheEvictor {
+
+    private final Cache cache;
+
+    public EntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    public void evictPosts(Collection<Long> postIds) {
+        evict(() -> {
+            for (Long postId : postIds) {
+                cache.evictEntityData(Post.class, postId);
+            }
+        });
+    }
+
+    // 查询缓存里可能有“按名称/slug 查不到”的结果，新增标签后要一并清掉
+    public void tagsInserted() {
+        evict(() -> cache.evictQueryRegion(EntityCacheConfig.TAG_QUERIES));
+    }
+
+    public void evictTag(Long tagId) {
+        evict(() -> {
+            cache.evictEntityData(Tag.class, tagId);
+            cache.evictQueryRegion(EntityCacheConfig.TAG_QUERIES);
+        });
+    }
+
+    // 在事务中时提交后再移除一次，期间其他事务读到的旧数据不会留在缓存里
+    private static void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.mydotey.blog.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mydotey.blog.dto.PostDTO;
+import com.mydotey.blog.service.PostChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 公开文章接口的序列化结果缓存，按字节数限制容量，同时保存 JSON 和 gzip 两种形式。
+ */
+@Component
+public class PostResponseCache {
+
+    public record PostKey(String slug, boolean html) {
+    }
+
+    public record ListKey(String tag, String search, int page, int size) {
+    }
+
+    public record CursorKey(String tag, String after, int size, boolean withTotal) {
+    }
+
+    // 热门排行按排行版本缓存，排行刷新后自然换成新的键
+    public record TrendingKey(long version, int size) {
+    }
+
+    public record CachedResponse(Long postId, byte[] json, byte[] gzip) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<Object, CachedResponse> cache;
+
+    public PostResponseCache(
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${blog.response-cache.max-bytes:67108864}") long maxBytes,
+        @Value("${blog.response-cache.ttl:5m}") Duration ttl
+    ) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((Object key, CachedResponse value) -> value.json().length + value.gzip().length)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "postResponses");
+    }
+
+    public CachedResponse getPost(String slug, boolean html, Supplier<?> loader) {
+        return CacheLoading.get(cache, new PostKey(slug, html), () -> serialize(loader.get()));
+    }
+
+    public CachedResponse getList(Object key, Supplier<?> loader) {
+        return CacheLoading.get(cache, key, () -> serialize(loader.get()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        Set<String> slugs = new HashSet<>();
+        Set<String> tagSlugs = new HashSet<>();
+        collect(event.before(), slugs, tagSlugs);
+        collect(event.after(), slugs, tagSlugs);
+        boolean listsAffected = event.affectsPublished();
+
+        cache.asMap().keySet().removeIf(key -> {
+            if (key instanceof PostKey postKey) {
+                return slugs.contains(postKey.slug());
+            }
+            if (!listsAffected) {
+                return false;
+            }
+            if (key instanceof TrendingKey) {
+                return true;
+            }
+            if (key instanceof CursorKey cursorKey) {
+                return cursorKey.tag() == null || tagSlugs.contains(cursorKey.tag());
+            }
+            ListKey listKey = (ListKey) key;
+            if (listKey.search() != null) {
+                return true;
+            }
+            return listKey.tag() == null || tagSlugs.contains(listKey.tag());
+        });
+    }
+
+    private static void collect(PostChangedEvent.PostState state, Set<String> slugs, Set<String> tagSlugs) {
+        if (state != null) {
+            slugs.add(state.slug());
+            tagSlugs.addAll(state.tagSlugs());
+        }
+    }
+
+    private CachedResponse serialize(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            Long postId = body instanceof PostDTO post ? post.getId() : null;
+            return new CachedResponse(postId, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
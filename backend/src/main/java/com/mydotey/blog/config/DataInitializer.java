@@ -3,6 +3,7 @@ package com.mydotey.blog.config;
 import com.mydotey.blog.entity.Admin;
 import com.mydotey.blog.repository.AdminRepository;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -10,7 +11,9 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class DataInitializer {
 
+    // prod profile 关闭，默认管理员改由迁移脚本 V2__default_admin.sql 创建，启动时不再查询管理员表
     @Bean
+    @ConditionalOnProperty(name = "blog.admin.bootstrap", havingValue = "true", matchIfMissing = true)
     CommandLineRunner initDatabase(AdminRepository adminRepository, PasswordEncoder passwordEncoder) {
         return args -> {
             // 检查是否已有管理员账号
@@ -0,0 +1,72 @@
+package com.mydotey.blog.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * 配置了只读副本时，主库外面包一层 {@link LazyConnectionDataSourceProxy}：只读事务在执行第一条语句时
+     * 才取连接，公开读请求（见 {@link ReplicaReads}）取副本连接，其余取主库连接；
+     * 同时换用 {@link ReplicaAwareJpaDialect}，副本上读到的数据不写入二级缓存。
+     * blog.datasource.max-concurrency 大于 0 时，再用 {@link ConcurrencyLimitedDataSource} 包装在最外层。
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceLimiter(Environment environment, ObjectProvider<MeterRegistry> meterRegistry,
+                                                      ObjectProvider<ReplicaPool> replicaPool) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactory) {
+                    ReplicaPool replicas = replicaPool.getIfAvailable();
+                    if (replicas != null && !replicas.isEmpty()) {
+                        entityManagerFactory.setJpaDialect(new ReplicaAwareJpaDialect());
+                    }
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource
+                        || bean instanceof LazyConnectionDataSourceProxy) {
+                    return bean;
+                }
+                ReplicaPool replicas = replicaPool.getIfAvailable();
+                if (replicas != null && !replicas.isEmpty()) {
+                    LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(dataSource);
+                    routing.setReadOnlyDataSource(new ReplicaRoutingDataSource(dataSource, replicas));
+                    dataSource = routing;
+                }
+                int maxConcurrency = environment.getProperty("blog.datasource.max-concurrency", Integer.class, 0);
+                if (maxConcurrency <= 0) {
+                    return dataSource;
+                }
+                Duration acquireTimeout = environment.getProperty(
+                    "blog.datasource.acquire-timeout", Duration.class, Duration.ofSeconds(5));
+                ConcurrencyLimitedDataSource limited =
+                    new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+                meterRegistry.ifAvailable(registry -> {
+                    Gauge.builder("blog.db.limiter.waiting", limited, ConcurrencyLimitedDataSource::waiting)
+                        .description("Threads waiting for a database permit")
+                        .register(registry);
+                    Gauge.builder("blog.db.limiter.available", limited, ConcurrencyLimitedDataSource::available)
+                        .description("Database permits currently free")
+                        .register(registry);
+                });
+                return limited;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.mydotey.blog.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate 二级缓存，用 Caffeine 的 JCache 实现，缓存在本进程内。
+ * 每个区域的条目上限和过期时间可用 blog.entity-cache.&lt;区域&gt;.max-size / ttl 调整，
+ * 命中率见 hibernate_second_level_cache_requests 和 hibernate_cache_query_requests 指标。
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String POST = "post";
+    public static final String POST_TAGS = "post-tags";
+    public static final String TAG = "tag";
+    public static final String POST_QUERIES = "post-queries";
+    public static final String TAG_QUERIES = "tag-queries";
+    // Hibernate 自带的区域：未指定区域的查询结果，以及判断查询结果是否过期的各表更新时间
+    private static final String DEFAULT_QUERIES = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private record Limits(long maxSize, Duration ttl) {
+    }
+
+    // 标签几乎不变，保留更久；文章正文较大，条目数少一些
+    private static final Map<String, Limits> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put(POST, new Limits(1000, Duration.ofMinutes(30)));
+        DEFAULTS.put(POST_TAGS, new Limits(5000, Duration.ofMinutes(30)));
+        DEFAULTS.put(TAG, new Limits(5000, Duration.ofHours(6)));
+        DEFAULTS.put(POST_QUERIES, new Limits(5000, Duration.ofMinutes(30)));
+        DEFAULTS.put(TAG_QUERIES, new Limits(5000, Duration.ofHours(6)));
+        DEFAULTS.put(DEFAULT_QUERIES, new Limits(1000, Duration.ofMinutes(10)));
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(Environment environment) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), provider.getDefaultClassLoader());
+        DEFAULTS.forEach((region, defaults) -> {
+            String prefix = "blog.entity-cache." + region;
+            create(cacheManager, region,
+                environment.getProperty(prefix + ".max-size", Long.class, defaults.maxSize()),
+                environment.getProperty(prefix + ".ttl", Duration.class, defaults.ttl()));
+        });
+        // 更新时间区域每张表只有一条，不能过期或淘汰，否则查询缓存会用到过期结果
+        create(cacheManager, UPDATE_TIMESTAMPS, null, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager, Environment environment) {
+        boolean enabled = environment.getProperty("blog.entity-cache.enabled", Boolean.class, true);
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, enabled);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, enabled);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            // 区域都在上面建好，缺少区域说明实体或查询上的区域名写错了
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static void create(CacheManager cacheManager, String region, Long maxSize, Duration ttl) {
+        // 同一 JVM 里重新启动上下文时（压测、基准测试）先销毁旧区域
+        if (cacheManager.getCache(region) != null) {
+            cacheManager.destroyCache(region);
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate 缓存的已经是拆开的字段值，不需要再按值复制
+        configuration.setStoreByValue(false);
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mydotey.blog.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 给每个 Spring Data 仓库加上 {@link RepositoryRowCounter}。
+     */
+    @Bean
+    public static BeanPostProcessor repositoryRowCounter(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                        (proxy, information) -> meterRegistry.ifAvailable(registry -> proxy.addAdvice(
+                            new RepositoryRowCounter(registry, information.getRepositoryInterface().getSimpleName())))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.mydotey.blog.config;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * 可能读副本的只读事务（公开读请求中的只读事务）不把读到的实体和查询结果写入 Hibernate 二级缓存，
+ * 只读取已有的缓存项：副本落后时读到的旧数据写进缓存后，会在过期前一直被命中。
+ */
+class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    private record ReplicaTransaction(Object delegate, Session session, CacheMode previous) {
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || !ReplicaReads.allowed()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheStoreMode(CacheStoreMode.BYPASS);
+        return new ReplicaTransaction(transactionData, session, previous);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReplicaTransaction replica) {
+            replica.session().setCacheMode(replica.previous());
+            super.cleanupTransaction(replica.delegate());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+}
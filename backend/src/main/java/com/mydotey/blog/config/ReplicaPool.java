@@ -0,0 +1,156 @@
+package com.mydotey.blog.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 只读副本的连接池，每个副本一个 Hikari 池。按 round-robin 或 least-connections 选择副本，
+ * 定时检查连通性，不可用的副本暂时跳过，全部不可用时 {@link #getConnection()} 返回 null，由调用方改用主库。
+ * 未配置 blog.datasource.replicas.urls 时为空，不创建任何连接。
+ */
+@Component
+public class ReplicaPool {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaPool.class);
+
+    public enum Balance {
+        ROUND_ROBIN, LEAST_CONNECTIONS
+    }
+
+    private static final class Replica {
+        final HikariDataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+
+        int activeConnections() {
+            return dataSource.getHikariPoolMXBean() == null ? 0 : dataSource.getHikariPoolMXBean().getActiveConnections();
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Balance balance;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaPool(
+        @Value("${blog.datasource.replicas.urls:}") String urls,
+        @Value("${blog.datasource.replicas.username:${spring.datasource.username:}}") String username,
+        @Value("${blog.datasource.replicas.password:${spring.datasource.password:}}") String password,
+        @Value("${blog.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+        @Value("${blog.datasource.replicas.connection-timeout:2s}") Duration connectionTimeout,
+        @Value("${blog.datasource.replicas.balance:round-robin}") String balance,
+        ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        this.balance = Balance.valueOf(balance.trim().replace('-', '_').toUpperCase());
+        List<String> jdbcUrls = Arrays.stream(urls.split(",")).map(String::trim).filter(url -> !url.isEmpty()).toList();
+        for (int i = 0; i < jdbcUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + (i + 1));
+            config.setJdbcUrl(jdbcUrls.get(i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(maximumPoolSize);
+            config.setConnectionTimeout(connectionTimeout.toMillis());
+            config.setReadOnly(true);
+            // 副本宕机时应用照常启动，由健康检查把它标为不可用
+            config.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(registry -> config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            Replica replica = new Replica(new HikariDataSource(config));
+            replicas.add(replica);
+            meterRegistry.ifAvailable(registry -> Gauge.builder("blog.db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                .description("Whether the read replica passed its last health check")
+                .tag("replica", replica.name())
+                .register(registry));
+        }
+        if (!replicas.isEmpty()) {
+            log.info("Routing public reads to {} replica(s) with {} balancing", replicas.size(), this.balance);
+        }
+    }
+
+    public boolean isEmpty() {
+        return replicas.isEmpty();
+    }
+
+    /**
+     * 从一个健康的副本取连接。取连接失败的副本标为不可用并尝试下一个，都不可用时返回 null。
+     */
+    public Connection getConnection() {
+        for (Replica replica : candidates()) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                markHealthy(replica, false, e);
+            }
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.datasource.replicas.health-check-interval:10000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                markHealthy(replica, connection.isValid(2), null);
+            } catch (SQLException e) {
+                markHealthy(replica, false, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    // 按均衡策略排好尝试顺序，只含健康副本
+    private List<Replica> candidates() {
+        List<Replica> healthy = new ArrayList<>(replicas.size());
+        int start = balance == Balance.ROUND_ROBIN ? Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size())) : 0;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                healthy.add(replica);
+            }
+        }
+        if (balance == Balance.LEAST_CONNECTIONS && healthy.size() > 1) {
+            healthy.sort((a, b) -> Integer.compare(a.activeConnections(), b.activeConnections()));
+        }
+        return healthy;
+    }
+
+    private void markHealthy(Replica replica, boolean healthy, SQLException cause) {
+        if (replica.healthy == healthy) {
+            return;
+        }
+        replica.healthy = healthy;
+        if (healthy) {
+            log.info("Read replica {} is healthy again", replica.name());
+        } else {
+            log.warn("Read replica {} is unavailable, reads fall back to other replicas or the primary: {}",
+                replica.name(), cause == null ? "validation failed" : cause.getMessage());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.mydotey.blog.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 标记当前线程正在处理可以读副本的请求。只有标记过的线程上的只读事务才会用副本连接，
+ * 后台任务、写请求和管理后台始终使用主库，保证写后立即读到自己的修改。
+ */
+public final class ReplicaReads {
+
+    private static final ThreadLocal<Boolean> ALLOWED = new ThreadLocal<>();
+
+    private ReplicaReads() {
+    }
+
+    public static void allow() {
+        ALLOWED.set(Boolean.TRUE);
+    }
+
+    public static void clear() {
+        ALLOWED.remove();
+    }
+
+    public static boolean allowed() {
+        return ALLOWED.get() != null;
+    }
+
+    /**
+     * 在主库上执行 action，结束后恢复当前线程的标记。内存缓存的加载函数用它：副本落后时读到的旧数据
+     * 一旦写进缓存，就会在写入方清掉缓存之后继续被命中，直到下一次变更或过期。
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (!allowed()) {
+            return action.get();
+        }
+        clear();
+        try {
+            return action.get();
+        } finally {
+            allow();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mydotey.blog.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 记录仓库查询方法返回的行数（blog.repository.rows），耗时由 Spring Data 自带的
+ * spring.data.repository.invocations 记录。只统计返回集合、分页或 Optional 的方法。
+ */
+class RepositoryRowCounter implements MethodInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final String repository;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    RepositoryRowCounter(MeterRegistry meterRegistry, String repository) {
+        this.meterRegistry = meterRegistry;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        int rows = rows(result);
+        if (rows >= 0) {
+            summaries.computeIfAbsent(invocation.getMethod(), method -> DistributionSummary.builder("blog.repository.rows")
+                    .description("Rows returned by repository query methods")
+                    .tag("repository", repository)
+                    .tag("method", method.getName())
+                    .register(meterRegistry))
+                .record(rows);
+        }
+        return result;
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return -1;
+    }
+}
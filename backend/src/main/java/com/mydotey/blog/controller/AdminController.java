@@ -1,19 +1,33 @@
 package com.mydotey.blog.controller;
 
+import com.mydotey.blog.dto.BulkPostRequest;
 import com.mydotey.blog.dto.CommentDTO;
 import com.mydotey.blog.dto.CreatePostRequest;
+import com.mydotey.blog.dto.CursorPage;
+import com.mydotey.blog.dto.ImportResult;
 import com.mydotey.blog.dto.PostDTO;
+import com.mydotey.blog.dto.PostSummaryDTO;
 import com.mydotey.blog.entity.Tag;
+import com.mydotey.blog.export.BackupExporter;
 import com.mydotey.blog.service.CommentService;
+import com.mydotey.blog.service.PostImporter;
 import com.mydotey.blog.service.PostService;
 import com.mydotey.blog.service.TagService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -22,22 +36,36 @@ public class AdminController {
     private final PostService postService;
     private final CommentService commentService;
     private final TagService tagService;
+    private final PostImporter postImporter;
+    private final BackupExporter backupExporter;
 
-    public AdminController(PostService postService, CommentService commentService, TagService tagService) {
+    public AdminController(PostService postService, CommentService commentService, TagService tagService,
+                           PostImporter postImporter, BackupExporter backupExporter) {
         this.postService = postService;
         this.commentService = commentService;
         this.tagService = tagService;
+        this.postImporter = postImporter;
+        this.backupExporter = backupExporter;
     }
 
     // Post Management
     @GetMapping("/posts")
-    public Page<PostDTO> getPosts(
+    public Page<PostSummaryDTO> getPosts(
         @RequestParam(defaultValue = "0") int page,
         @RequestParam(defaultValue = "10") int size
     ) {
         return postService.getAllPostsForAdmin(PageRequest.of(page, size, Sort.by("createdAt").descending()));
     }
 
+    @GetMapping(value = "/posts", params = "after")
+    public CursorPage<PostSummaryDTO> getPostsAfter(
+        @RequestParam String after,
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(defaultValue = "false") boolean withTotal
+    ) {
+        return postService.getAllPostsForAdminAfter(after, size, withTotal);
+    }
+
     @GetMapping("/posts/{id}")
     public PostDTO getPost(@PathVariable Long id) {
         return postService.getPostById(id);
@@ -58,6 +86,36 @@ public class AdminController {
         postService.deletePost(id);
     }
 
+    // 请求体为 JSON 数组或 NDJSON，边读边写入，适合一次导入大量文章
+    @PostMapping(value = "/posts/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ImportResult importPosts(HttpServletRequest request) throws IOException {
+        return postImporter.importPosts(request.getInputStream());
+    }
+
+    @PutMapping("/posts/status")
+    public Map<String, Integer> updatePostStatus(@Valid @RequestBody BulkPostRequest request) {
+        return Map.of("updated", postService.updateStatus(request.getIds(), request.getStatus()));
+    }
+
+    @PostMapping("/posts/bulk-delete")
+    public Map<String, Integer> deletePosts(@Valid @RequestBody BulkPostRequest request) {
+        return Map.of("deleted", postService.deletePosts(request.getIds()));
+    }
+
+    // 全量导出文章和评论（NDJSON），gzip=true 时下载压缩文件
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "false") boolean gzip, HttpServletResponse response)
+        throws IOException {
+        backupExporter.export(() -> {
+            String filename = "blog-export-" + LocalDate.now() + (gzip ? ".ndjson.gz" : ".ndjson");
+            response.setContentType(gzip ? "application/gzip" : MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(filename).build().toString());
+            return gzip ? new GZIPOutputStream(response.getOutputStream(), 64 * 1024) : response.getOutputStream();
+        });
+    }
+
     // Comment Management
     @GetMapping("/comments")
     public Page<CommentDTO> getComments(
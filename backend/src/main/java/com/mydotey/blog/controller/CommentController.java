@@ -1,10 +1,14 @@
 package com.mydotey.blog.controller;
 
 import com.mydotey.blog.dto.CommentDTO;
+import com.mydotey.blog.dto.CommentNodeDTO;
 import com.mydotey.blog.dto.CreateCommentRequest;
 import com.mydotey.blog.service.CommentService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -24,8 +28,20 @@ public class CommentController {
         return commentService.getApprovedComments(postId);
     }
 
+    @GetMapping("/tree")
+    public Page<CommentNodeDTO> getCommentTree(
+        @RequestParam Long postId,
+        @RequestParam(defaultValue = "0") int page,
+        @RequestParam(defaultValue = "20") int size
+    ) {
+        return commentService.getCommentTree(postId, PageRequest.of(page, size));
+    }
+
     @PostMapping
-    public CommentDTO createComment(@Valid @RequestBody CreateCommentRequest request, HttpServletRequest httpRequest) {
-        return commentService.createComment(request, httpRequest);
+    public ResponseEntity<?> createComment(@Valid @RequestBody CreateCommentRequest request, HttpServletRequest httpRequest) {
+        if (commentService.isAsyncIngestion()) {
+            return ResponseEntity.accepted().body(commentService.submitComment(request, httpRequest));
+        }
+        return ResponseEntity.ok(commentService.createComment(request, httpRequest));
     }
 }
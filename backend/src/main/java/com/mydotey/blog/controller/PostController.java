@@ -1,42 +1,181 @@
 package com.mydotey.blog.controller;
 
-import com.mydotey.blog.dto.PostDTO;
+import com.mydotey.blog.cache.ContentVersions;
+import com.mydotey.blog.cache.PostResponseCache;
+import com.mydotey.blog.cache.PostResponseCache.CachedResponse;
+import com.mydotey.blog.dto.RelatedPostDTO;
+import com.mydotey.blog.search.RelatedPosts;
 import com.mydotey.blog.service.PostService;
-import org.springframework.data.domain.Page;
+import com.mydotey.blog.service.TrendingPosts;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/posts")
 public class PostController {
 
     private final PostService postService;
+    private final PostResponseCache responseCache;
+    private final RelatedPosts relatedPosts;
+    private final TrendingPosts trendingPosts;
+
+    private final ContentVersions versions;
+    private final String listCacheControl;
+    private final String postCacheControl;
+    private final String relatedCacheControl;
+    private final String trendingCacheControl;
 
-    public PostController(PostService postService) {
+    public PostController(
+        PostService postService,
+        PostResponseCache responseCache,
+        RelatedPosts relatedPosts,
+        TrendingPosts trendingPosts,
+        ContentVersions versions,
+        @Value("${blog.http.cache-control.posts:no-cache}") String listCacheControl,
+        @Value("${blog.http.cache-control.post:no-cache}") String postCacheControl,
+        @Value("${blog.http.cache-control.related:max-age=300}") String relatedCacheControl,
+        @Value("${blog.http.cache-control.trending:max-age=60}") String trendingCacheControl
+    ) {
         this.postService = postService;
+        this.responseCache = responseCache;
+        this.relatedPosts = relatedPosts;
+        this.trendingPosts = trendingPosts;
+        this.versions = versions;
+        this.listCacheControl = listCacheControl;
+        this.postCacheControl = postCacheControl;
+        this.relatedCacheControl = relatedCacheControl;
+        this.trendingCacheControl = trendingCacheControl;
     }
 
     @GetMapping
-    public Page<PostDTO> getPosts(
+    public ResponseEntity<byte[]> getPosts(
         @RequestParam(required = false) String tag,
         @RequestParam(required = false) String search,
         @RequestParam(defaultValue = "0") int page,
-        @RequestParam(defaultValue = "10") int size
+        @RequestParam(defaultValue = "10") int size,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        ServletWebRequest webRequest
     ) {
+        if (notModified(webRequest, listCacheControl, versions.list(), acceptEncoding)) {
+            return null;
+        }
         PageRequest pageRequest = PageRequest.of(page, size, Sort.by("createdAt").descending());
+        String tagFilter = tag != null && !tag.isEmpty() ? tag : null;
+        String searchFilter = tagFilter == null && search != null && !search.isEmpty() ? search : null;
+
+        CachedResponse response = responseCache.getList(
+            new PostResponseCache.ListKey(tagFilter, searchFilter, page, size), () -> {
+                if (tagFilter != null) {
+                    return postService.getPostsByTag(tagFilter, pageRequest);
+                } else if (searchFilter != null) {
+                    return postService.searchPosts(searchFilter, pageRequest);
+                } else {
+                    return postService.getPublishedPosts(pageRequest);
+                }
+            });
+        return toResponse(response, acceptEncoding);
+    }
 
-        if (tag != null && !tag.isEmpty()) {
-            return postService.getPostsByTag(tag, pageRequest);
-        } else if (search != null && !search.isEmpty()) {
-            return postService.searchPosts(search, pageRequest);
-        } else {
-            return postService.getPublishedPosts(pageRequest);
+    // 近期热门文章，按时间衰减后的阅读量排序，排行在后台定时刷新
+    @GetMapping("/trending")
+    public ResponseEntity<byte[]> getTrendingPosts(
+        @RequestParam(defaultValue = "10") int size,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        ServletWebRequest webRequest
+    ) {
+        int limit = Math.max(1, Math.min(size, trendingPosts.maxSize()));
+        TrendingPosts.Ranking ranking = trendingPosts.ranking();
+        CachedResponse response = responseCache.getList(new PostResponseCache.TrendingKey(ranking.version(), limit),
+            () -> postService.getPublishedSummariesByIds(ranking.top(limit)));
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, trendingCacheControl);
+        return toResponse(response, acceptEncoding);
+    }
+
+    // 带 after 参数（首屏可为空）时使用游标分页，避免深翻页的 OFFSET 扫描和 count 查询
+    @GetMapping(params = "after")
+    public ResponseEntity<byte[]> getPostsAfter(
+        @RequestParam(required = false) String tag,
+        @RequestParam String after,
+        @RequestParam(defaultValue = "10") int size,
+        @RequestParam(defaultValue = "false") boolean withTotal,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        ServletWebRequest webRequest
+    ) {
+        if (notModified(webRequest, listCacheControl, versions.list(), acceptEncoding)) {
+            return null;
         }
+        String tagFilter = tag != null && !tag.isEmpty() ? tag : null;
+        CachedResponse response = responseCache.getList(
+            new PostResponseCache.CursorKey(tagFilter, after, size, withTotal), () -> tagFilter != null
+                ? postService.getPostsByTagAfter(tagFilter, after, size, withTotal)
+                : postService.getPublishedPostsAfter(after, size, withTotal));
+        return toResponse(response, acceptEncoding);
     }
 
+    // format=html 时返回服务端渲染的正文和目录，不含 Markdown 原文
     @GetMapping("/{slug}")
-    public PostDTO getPost(@PathVariable String slug) {
-        return postService.getPostBySlug(slug);
+    public ResponseEntity<byte[]> getPost(
+        @PathVariable String slug,
+        @RequestParam(defaultValue = "markdown") String format,
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+        ServletWebRequest webRequest
+    ) {
+        boolean html = "html".equals(format);
+        ContentVersions.Version version = versions.post(slug);
+        if (version != null && html) {
+            version = version.variant("html");
+        }
+        if (version != null && notModified(webRequest, postCacheControl, version, acceptEncoding)) {
+            // 浏览器重新验证也算一次阅读
+            postService.recordView(version.postId());
+            return null;
+        }
+        CachedResponse response = responseCache.getPost(slug, html, () -> postService.getPostBySlug(slug, html));
+        postService.recordView(response.postId());
+        return toResponse(response, acceptEncoding);
+    }
+
+    // 后台预先算好的相关文章，文章未发布或尚未计算时返回空列表
+    @GetMapping("/{slug}/related")
+    public ResponseEntity<List<RelatedPostDTO>> getRelatedPosts(@PathVariable String slug) {
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CACHE_CONTROL, relatedCacheControl)
+            .body(relatedPosts.related(slug));
+    }
+
+    /**
+     * 按版本信息处理 If-None-Match / If-Modified-Since，命中时响应已设为 304。
+     * gzip 和未压缩是两种表示，ETag 不同；304 和 200 一样带 Vary，缓存按编码分开存。
+     */
+    private boolean notModified(ServletWebRequest webRequest, String cacheControl, ContentVersions.Version version,
+                                String acceptEncoding) {
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        webRequest.getResponse().setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            version = version.variant("gz");
+        }
+        return webRequest.checkNotModified(version.header(), version.lastModified());
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private ResponseEntity<byte[]> toResponse(CachedResponse response, String acceptEncoding) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(response.gzip());
+        }
+        return builder.body(response.json());
     }
 }
@@ -1,8 +1,12 @@
 package com.mydotey.blog.controller;
 
-import com.mydotey.blog.entity.Tag;
+import com.mydotey.blog.cache.ContentVersions;
+import com.mydotey.blog.dto.TagDTO;
 import com.mydotey.blog.service.TagService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -11,13 +15,26 @@ import java.util.List;
 public class TagController {
 
     private final TagService tagService;
+    private final ContentVersions versions;
+    private final String cacheControl;
 
-    public TagController(TagService tagService) {
+    public TagController(TagService tagService, ContentVersions versions,
+                         @Value("${blog.http.cache-control.tags:max-age=60}") String cacheControl) {
         this.tagService = tagService;
+        this.versions = versions;
+        this.cacheControl = cacheControl;
     }
 
+    // sort=name（默认）或 popular（按已发布文章数降序）
     @GetMapping
-    public List<Tag> getTags() {
-        return tagService.getAllTags();
+    public List<TagDTO> getTags(@RequestParam(defaultValue = "name") String sort, ServletWebRequest webRequest) {
+        // 先取版本再取数据，数据只会比 ETag 新
+        ContentVersions.Version version = versions.tags().variant(sort);
+        List<TagDTO> tags = tagService.getTags(sort);
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (webRequest.checkNotModified(version.header(), version.lastModified())) {
+            return null;
+        }
+        return tags;
     }
 }
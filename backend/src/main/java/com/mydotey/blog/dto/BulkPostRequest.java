@@ -0,0 +1,17 @@
+package com.mydotey.blog.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkPostRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<Long> ids;
+
+    // 仅批量修改状态时使用
+    private String status;
+}
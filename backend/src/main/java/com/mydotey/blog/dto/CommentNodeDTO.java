@@ -0,0 +1,18 @@
+package com.mydotey.blog.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CommentNodeDTO {
+    private Long id;
+    private Long parentId;
+    private String authorName;
+    private String content;
+    private LocalDateTime createdAt;
+    // 子树中全部回复的数量（不含自身）
+    private int replyCount;
+    private List<CommentNodeDTO> replies = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package com.mydotey.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CommentReceipt {
+    // 入队时从 comments_id_seq 分配，写入数据库后就是评论的 id
+    private Long id;
+    private String status;
+}
@@ -2,6 +2,7 @@ package com.mydotey.blog.dto;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
@@ -11,7 +12,10 @@ public class CreateCommentRequest {
 
     private Long parentId;
 
+    @Size(max = 50)
     private String authorName;
+
+    @Size(max = 100)
     private String authorEmail;
 
     @NotBlank
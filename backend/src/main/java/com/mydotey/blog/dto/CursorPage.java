@@ -0,0 +1,15 @@
+package com.mydotey.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    // 仅在请求 withTotal=true 时返回，来自缓存的计数，可能略有滞后
+    private Long totalElements;
+}
@@ -0,0 +1,25 @@
+package com.mydotey.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportResult {
+    private int created;
+    private int updated;
+    private int failed;
+    // 只保留前若干条错误，failed 是准确的失败总数
+    private List<Error> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class Error {
+        // 在导入数据中的序号，从 1 开始
+        private int index;
+        private String slug;
+        private String message;
+    }
+}
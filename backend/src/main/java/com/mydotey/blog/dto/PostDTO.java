@@ -1,7 +1,9 @@
 package com.mydotey.blog.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Set;
 
 @Data
@@ -10,6 +12,11 @@ public class PostDTO {
     private String title;
     private String slug;
     private String content;
+    // 仅 format=html 时返回，此时 content 为空
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String contentHtml;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<TocEntry> toc;
     private String summary;
     private String coverImage;
     private String status;
@@ -0,0 +1,36 @@
+package com.mydotey.blog.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// 列表接口使用的文章摘要，不含正文 content
+@Data
+@NoArgsConstructor
+public class PostSummaryDTO {
+    private Long id;
+    private String title;
+    private String slug;
+    private String summary;
+    private String coverImage;
+    private String status;
+    private Long views;
+    private Set<String> tags;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // 供 JPQL 构造器投影使用，只查询列表需要的列
+    public PostSummaryDTO(Long id, String title, String slug, String summary, String coverImage, String status,
+                          Long views, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.slug = slug;
+        this.summary = summary;
+        this.coverImage = coverImage;
+        this.status = status;
+        this.views = views;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
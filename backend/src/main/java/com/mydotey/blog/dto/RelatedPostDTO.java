@@ -0,0 +1,21 @@
+package com.mydotey.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// 相关文章，score 越大越相关
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RelatedPostDTO {
+    private Long id;
+    private String title;
+    private String slug;
+    private String summary;
+    private String coverImage;
+    private LocalDateTime createdAt;
+    private float score;
+}
@@ -0,0 +1,16 @@
+package com.mydotey.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// postCount 为该标签下已发布文章数
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagDTO {
+    private Long id;
+    private String name;
+    private String slug;
+    private int postCount;
+}
@@ -0,0 +1,15 @@
+package com.mydotey.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 文章目录项，id 与渲染后 HTML 中标题的 id 一致
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TocEntry {
+    private int level;
+    private String id;
+    private String text;
+}
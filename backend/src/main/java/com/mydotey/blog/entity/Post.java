@@ -1,16 +1,25 @@
 package com.mydotey.blog.entity;
 
+import com.mydotey.blog.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "posts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.POST)
+@Table(name = "posts", indexes = {
+    @Index(name = "idx_posts_status_created_at", columnList = "status, created_at DESC, id DESC")
+})
 public class Post {
+    // 与 comments 相同，按 50 个一段预取 id，批量导入时才能合并成 JDBC 批量插入
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "posts_id_seq")
+    @SequenceGenerator(name = "posts_id_seq", sequenceName = "posts_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -22,6 +31,16 @@ public class Post {
     @Column(nullable = false, columnDefinition = "TEXT")
     private String content;
 
+    // 正文的渲染结果，由 PostRenderer 写入；content_hash 与正文不一致时会重新渲染
+    @Column(length = 64)
+    private String contentHash;
+
+    @Column(columnDefinition = "TEXT")
+    private String contentHtml;
+
+    @Column(columnDefinition = "TEXT")
+    private String toc;
+
     @Column(length = 500)
     private String summary;
 
@@ -31,10 +50,12 @@ public class Post {
     @Column(length = 20)
     private String status = "DRAFT";
 
-    @Column(columnDefinition = "BIGINT DEFAULT 0")
+    // 浏览量只由 ViewCounter 通过 views = views + ? 增量写入，实体保存时不覆盖
+    @Column(columnDefinition = "BIGINT DEFAULT 0", updatable = false)
     private Long views = 0L;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.POST_TAGS)
     @JoinTable(
         name = "post_tags",
         joinColumns = @JoinColumn(name = "post_id"),
@@ -1,11 +1,16 @@
 package com.mydotey.blog.entity;
 
+import com.mydotey.blog.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.TAG)
 @Table(name = "tags")
 public class Tag {
     @Id
@@ -0,0 +1,201 @@
+package com.mydotey.blog.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mydotey.blog.exception.TooManyRequestsException;
+import com.mydotey.blog.service.TagCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 全量导出文章（含标签）和评论为 NDJSON，每行一条记录，用 type 区分：
+ * <pre>
+ * {"type":"post","id":1,"title":...,"tagNames":["Java"],...}
+ * {"type":"comment","id":1,"postId":1,...}
+ * {"type":"end","posts":100000,"comments":1000000}
+ * </pre>
+ * 直接读 JDBC 结果集并边读边写，不经过实体和持久化上下文，内存占用与数据量无关。
+ * 最后一行 end 记录总数，缺少这一行说明导出中途断开。
+ */
+@Component
+public class BackupExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(BackupExporter.class);
+
+    private static final String POSTS_SQL = """
+        SELECT id, title, slug, content, summary, cover_image, status, views, created_at, updated_at
+        FROM posts ORDER BY id""";
+    private static final String POST_TAGS_SQL = "SELECT post_id, tag_id FROM post_tags ORDER BY post_id";
+    private static final String COMMENTS_SQL = """
+        SELECT id, post_id, parent_id, author_name, author_email, content, status, ip_address, user_agent, created_at
+        FROM comments ORDER BY id""";
+
+    public interface Target {
+        OutputStream open() throws IOException;
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TagCatalog tagCatalog;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+    private final Semaphore running;
+
+    public BackupExporter(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        TagCatalog tagCatalog,
+        ObjectMapper objectMapper,
+        @Value("${blog.backup.fetch-size:500}") int fetchSize,
+        @Value("${blog.backup.max-concurrent:1}") int maxConcurrent
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // PostgreSQL 只在关闭自动提交时按 fetchSize 分批取数，否则一次把结果集全部读进内存
+        this.transactionTemplate.setReadOnly(true);
+        // 文章、标签关联和评论分三次查询，可重复读让它们读到同一个快照，不会出现评论指向导出后才插入的文章
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.tagCatalog = tagCatalog;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+        this.running = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * 导出到 target 打开的输出流，结束后关闭该流。整个导出只占用一个数据库连接，
+     * 同时进行的导出数超过 blog.backup.max-concurrent 时抛出 TooManyRequestsException，此时不会打开 target。
+     */
+    public void export(Target target) throws IOException {
+        if (!running.tryAcquire()) {
+            throw new TooManyRequestsException("已有导出任务在进行，请稍后再试");
+        }
+        try (OutputStream out = new BufferedOutputStream(target.open(), 64 * 1024);
+             JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            long start = System.currentTimeMillis();
+            long[] counts = transactionTemplate.execute(status ->
+                jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+                    try {
+                        return new long[]{writePosts(connection, generator), writeComments(connection, generator)};
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            generator.writeStartObject();
+            generator.writeStringField("type", "end");
+            generator.writeNumberField("posts", counts[0]);
+            generator.writeNumberField("comments", counts[1]);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            log.info("Exported {} posts and {} comments in {} ms", counts[0], counts[1],
+                System.currentTimeMillis() - start);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            running.release();
+        }
+    }
+
+    // 文章和 post_tags 都按文章 id 排序，两个游标同步前进，把标签并到对应文章
+    private long writePosts(Connection connection, JsonGenerator generator) throws SQLException, IOException {
+        long count = 0;
+        try (PreparedStatement posts = cursor(connection, POSTS_SQL);
+             PreparedStatement postTags = cursor(connection, POST_TAGS_SQL);
+             ResultSet rs = posts.executeQuery();
+             ResultSet tags = postTags.executeQuery()) {
+            boolean hasTag = tags.next();
+            while (rs.next()) {
+                long id = rs.getLong("id");
+                generator.writeStartObject();
+                generator.writeStringField("type", "post");
+                generator.writeNumberField("id", id);
+                generator.writeStringField("title", rs.getString("title"));
+                generator.writeStringField("slug", rs.getString("slug"));
+                generator.writeStringField("content", rs.getString("content"));
+                generator.writeStringField("summary", rs.getString("summary"));
+                generator.writeStringField("coverImage", rs.getString("cover_image"));
+                generator.writeStringField("status", rs.getString("status"));
+                generator.writeNumberField("views", rs.getLong("views"));
+                writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+                writeTimestamp(generator, "updatedAt", rs.getTimestamp("updated_at"));
+                generator.writeArrayFieldStart("tagNames");
+                // 跳过已删除文章残留的关联
+                while (hasTag && tags.getLong("post_id") < id) {
+                    hasTag = tags.next();
+                }
+                while (hasTag && tags.getLong("post_id") == id) {
+                    generator.writeString(tagCatalog.name(tags.getLong("tag_id")));
+                    hasTag = tags.next();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeComments(Connection connection, JsonGenerator generator) throws SQLException, IOException {
+        long count = 0;
+        try (PreparedStatement comments = cursor(connection, COMMENTS_SQL);
+             ResultSet rs = comments.executeQuery()) {
+            while (rs.next()) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "comment");
+                generator.writeNumberField("id", rs.getLong("id"));
+                generator.writeNumberField("postId", rs.getLong("post_id"));
+                long parentId = rs.getLong("parent_id");
+                if (rs.wasNull()) {
+                    generator.writeNullField("parentId");
+                } else {
+                    generator.writeNumberField("parentId", parentId);
+                }
+                generator.writeStringField("authorName", rs.getString("author_name"));
+                generator.writeStringField("authorEmail", rs.getString("author_email"));
+                generator.writeStringField("content", rs.getString("content"));
+                generator.writeStringField("status", rs.getString("status"));
+                generator.writeStringField("ipAddress", rs.getString("ip_address"));
+                generator.writeStringField("userAgent", rs.getString("user_agent"));
+                writeTimestamp(generator, "createdAt", rs.getTimestamp("created_at"));
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private PreparedStatement cursor(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+            ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    private static void writeTimestamp(JsonGenerator generator, String field, Timestamp value) throws IOException {
+        if (value == null) {
+            generator.writeNullField(field);
+        } else {
+            generator.writeStringField(field, value.toLocalDateTime().toString());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mydotey.blog.export;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 以 --export-static=&lt;dir&gt; 启动时执行一次全量导出，导出后由 BlogApplication 退出进程。
+ */
+@Component
+public class StaticExportRunner implements ApplicationRunner {
+
+    public static final String OPTION = "export-static";
+
+    private static final Logger log = LoggerFactory.getLogger(StaticExportRunner.class);
+
+    private final StaticExporter exporter;
+
+    public StaticExportRunner(StaticExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    public static boolean isExportMode(String[] args) {
+        for (String arg : args) {
+            if (arg.equals("--" + OPTION) || arg.startsWith("--" + OPTION + "=")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<String> values = args.getOptionValues(OPTION);
+        if (values == null) {
+            return;
+        }
+        if (values.isEmpty() || values.get(0).isBlank()) {
+            throw new IllegalArgumentException("--" + OPTION + " requires a target directory");
+        }
+        Path dir = Path.of(values.get(0)).toAbsolutePath();
+        long start = System.nanoTime();
+        int posts = exporter.exportAll(dir);
+        log.info("Exported {} published posts to {} in {} ms", posts, dir, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,306 @@
+package com.mydotey.blog.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mydotey.blog.dto.PostDTO;
+import com.mydotey.blog.dto.PostSummaryDTO;
+import com.mydotey.blog.dto.TagDTO;
+import com.mydotey.blog.repository.PostRepository;
+import com.mydotey.blog.service.PostChangedEvent;
+import com.mydotey.blog.service.PostService;
+import com.mydotey.blog.service.TagService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 把已发布内容导出为静态文件（JSON + HTML，各带 .gz），供 nginx 直接从磁盘提供。
+ * 目录结构：
+ * <pre>
+ * api/posts/{slug}.json          文章详情，与 GET /api/posts/{slug}?format=html 相同
+ * api/lists/posts/{page}.json    首页列表，与 GET /api/posts?page={page} 相同
+ * api/lists/tags/{tag}/{page}.json
+ * api/tags.json
+ * posts/{slug}.html, index.html, page/{page}.html, tag/{tag}/{page}.html
+ * </pre>
+ * 配置了 blog.export.dir 时，文章变更后只重写受影响的文件，列表只重写位置变动的分页。
+ */
+@Component
+public class StaticExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StaticExporter.class);
+
+    private static final int BATCH_SIZE = 200;
+
+    private final PostService postService;
+    private final TagService tagService;
+    private final PostRepository postRepository;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final Path incrementalDir;
+    private final ExecutorService executor;
+
+    public StaticExporter(
+        PostService postService,
+        TagService tagService,
+        PostRepository postRepository,
+        ObjectMapper objectMapper,
+        @Value("${blog.export.page-size:10}") int pageSize,
+        @Value("${blog.export.dir:}") String incrementalDir
+    ) {
+        this.postService = postService;
+        this.tagService = tagService;
+        this.postRepository = postRepository;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.incrementalDir = incrementalDir.isBlank() ? null : Path.of(incrementalDir);
+        // 单线程执行，保证同一文件不会被并发写
+        this.executor = this.incrementalDir == null ? null
+            : Executors.newSingleThreadExecutor(Thread.ofPlatform().name("static-export").daemon().factory());
+    }
+
+    /**
+     * 全量导出到 dir，返回导出的文章数。
+     */
+    public int exportAll(Path dir) throws IOException {
+        List<Long> ids = postRepository.findIdsByStatus("PUBLISHED");
+        int count = 0;
+        for (int i = 0; i < ids.size(); i += BATCH_SIZE) {
+            for (PostDTO post : postService.getPublishedPostsByIds(ids.subList(i, Math.min(i + BATCH_SIZE, ids.size())))) {
+                writePost(dir, post);
+                count++;
+            }
+        }
+        writeListing(dir, null);
+        List<TagDTO> tags = tagService.getAllTags();
+        for (TagDTO tag : tags) {
+            writeListing(dir, tag);
+        }
+        writeFile(resolve(dir, "api/tags.json"), objectMapper.writeValueAsBytes(tags));
+        return count;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (incrementalDir == null) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                exportChange(incrementalDir, event);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Incremental static export failed for post {}", event.postId(), e);
+            }
+        });
+    }
+
+    private void exportChange(Path dir, PostChangedEvent event) throws IOException {
+        PostChangedEvent.PostState before = event.before();
+        PostChangedEvent.PostState after = event.after();
+        if (before != null && before.isPublished() && (after == null || !after.isPublished()
+                || !before.slug().equals(after.slug()))) {
+            deletePost(dir, before.slug());
+        }
+        if (after != null && after.isPublished()) {
+            for (PostDTO post : postService.getPublishedPostsByIds(List.of(event.postId()))) {
+                writePost(dir, post);
+            }
+        }
+        if (!event.affectsPublished()) {
+            return;
+        }
+
+        // createdAt 不会变，变更前后的状态都能用来定位文章在列表中的位置
+        LocalDateTime createdAt = (after != null ? after : before).createdAt();
+        writeListingChange(dir, null, event, postRepository.countByStatusAndCreatedAtAfter("PUBLISHED", createdAt));
+        Set<String> tagSlugs = new HashSet<>();
+        if (before != null) {
+            tagSlugs.addAll(before.tagSlugs());
+        }
+        if (after != null) {
+            tagSlugs.addAll(after.tagSlugs());
+        }
+        List<TagDTO> tags = tagService.getAllTags();
+        for (TagDTO tag : tags) {
+            if (tagSlugs.contains(tag.getSlug())) {
+                writeListingChange(dir, tag, event,
+                    postRepository.countByTagSlugAndStatusAndCreatedAtAfter(tag.getSlug(), "PUBLISHED", createdAt));
+            }
+        }
+        writeFile(resolve(dir, "api/tags.json"), objectMapper.writeValueAsBytes(tags));
+    }
+
+    /**
+     * 按文章在列表中的位置（排在它前面的文章数）重写受影响的分页。文章进出列表时，
+     * 它所在的页到末页整体移位，都要重写；仍在列表中时只有它所在的一页变化。
+     */
+    private void writeListingChange(Path dir, TagDTO tag, PostChangedEvent event, long position) throws IOException {
+        String tagSlug = tag == null ? null : tag.getSlug();
+        boolean listedBefore = isListed(event.before(), tagSlug);
+        boolean listedAfter = isListed(event.after(), tagSlug);
+        if (listedBefore || listedAfter) {
+            writeListing(dir, tag, (int) (position / pageSize), listedBefore != listedAfter);
+        }
+    }
+
+    private static boolean isListed(PostChangedEvent.PostState state, String tagSlug) {
+        return state != null && state.isPublished() && (tagSlug == null || state.tagSlugs().contains(tagSlug));
+    }
+
+    private void writePost(Path dir, PostDTO post) throws IOException {
+        if (!isSafeSlug(post.getSlug())) {
+            log.warn("Skipping static export of post {}: slug {} is not a safe file name", post.getId(), post.getSlug());
+            return;
+        }
+        writeFile(resolve(dir, "api/posts/" + post.getSlug() + ".json"), objectMapper.writeValueAsBytes(post));
+        writeFile(resolve(dir, "posts/" + post.getSlug() + ".html"), StaticPages.post(post));
+    }
+
+    private void deletePost(Path dir, String slug) throws IOException {
+        if (!isSafeSlug(slug)) {
+            return;
+        }
+        for (String path : List.of("api/posts/" + slug + ".json", "posts/" + slug + ".html")) {
+            Files.deleteIfExists(resolve(dir, path));
+            Files.deleteIfExists(resolve(dir, path + ".gz"));
+        }
+    }
+
+    /**
+     * 导出一个列表的所有分页，tag 为 null 时是首页列表。多出来的旧分页会被删除。
+     */
+    private void writeListing(Path dir, TagDTO tag) throws IOException {
+        writeListing(dir, tag, 0, true);
+    }
+
+    /**
+     * 从 firstPage 开始重写列表分页，toEnd 为 false 时只重写 firstPage 一页，为 true 时重写到末页并删除多出来的旧分页。
+     * 第 0 页是列表入口（首页列表同时写 index.html），总是重写；之前的其他分页里的总数等到下次全量导出再更新。
+     */
+    private void writeListing(Path dir, TagDTO tag, int firstPage, boolean toEnd) throws IOException {
+        String tagSlug = tag == null ? null : tag.getSlug();
+        if (tag != null && !isSafeSlug(tagSlug)) {
+            log.warn("Skipping static export of tag {}: slug {} is not a safe file name", tag.getName(), tagSlug);
+            return;
+        }
+        Path jsonDir = resolve(dir, tagSlug == null ? "api/lists/posts" : "api/lists/tags/" + tagSlug);
+        Path htmlDir = resolve(dir, tagSlug == null ? "page" : "tag/" + tagSlug);
+
+        int pages = Math.max(writeListingPage(dir, tag, jsonDir, htmlDir, 0).getTotalPages(), 1);
+        int lastPage = toEnd ? pages - 1 : Math.min(firstPage, pages - 1);
+        for (int number = Math.max(firstPage, 1); number <= lastPage; number++) {
+            writeListingPage(dir, tag, jsonDir, htmlDir, number);
+        }
+        if (toEnd) {
+            deletePagesFrom(jsonDir, ".json", pages);
+            deletePagesFrom(htmlDir, ".html", pages);
+        }
+    }
+
+    private Page<PostSummaryDTO> writeListingPage(Path dir, TagDTO tag, Path jsonDir, Path htmlDir, int number)
+            throws IOException {
+        PageRequest pageable = PageRequest.of(number, pageSize, Sort.by("createdAt").descending());
+        Page<PostSummaryDTO> page = tag == null
+            ? postService.getPublishedPosts(pageable)
+            : postService.getPostsByTag(tag.getSlug(), pageable);
+        writeFile(jsonDir.resolve(number + ".json"), objectMapper.writeValueAsBytes(page));
+        byte[] html = StaticPages.listing(page, tag);
+        writeFile(htmlDir.resolve(number + ".html"), html);
+        if (number == 0 && tag == null) {
+            writeFile(resolve(dir, "index.html"), html);
+        }
+        return page;
+    }
+
+    // slug 直接用作文件名的一段，含路径分隔符或是 . / .. 时会指向别的目录，这样的文章和标签不导出
+    private static boolean isSafeSlug(String slug) {
+        return slug != null && !slug.isEmpty() && !slug.equals(".") && !slug.equals("..")
+            && slug.indexOf('/') < 0 && slug.indexOf('\\') < 0 && slug.indexOf('\0') < 0;
+    }
+
+    // 兜底检查：拼出的路径规范化后必须仍在导出目录内
+    private static Path resolve(Path dir, String relative) throws IOException {
+        Path root = dir.toAbsolutePath().normalize();
+        Path path = root.resolve(relative).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IOException("Refusing to write outside the export directory: " + relative);
+        }
+        return path;
+    }
+
+    private static void deletePagesFrom(Path dir, String suffix, int firstStale) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                String base = name.endsWith(".gz") ? name.substring(0, name.length() - 3) : name;
+                if (base.endsWith(suffix)) {
+                    String number = base.substring(0, base.length() - suffix.length());
+                    if (number.chars().allMatch(Character::isDigit) && !number.isEmpty()
+                            && Integer.parseInt(number) >= firstStale) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+
+    // 先写临时文件再原子替换，nginx 不会读到写了一半的文件
+    private static void writeFile(Path path, byte[] content) throws IOException {
+        Files.createDirectories(path.getParent());
+        replace(path, out -> out.write(content));
+        replace(path.resolveSibling(path.getFileName() + ".gz"), out -> {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(content);
+            }
+        });
+    }
+
+    private interface Writer {
+        void write(OutputStream out) throws IOException;
+    }
+
+    private static void replace(Path path, Writer writer) throws IOException {
+        Path tmp = Files.createTempFile(path.getParent(), ".export", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                writer.write(out);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UncheckedIOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+}
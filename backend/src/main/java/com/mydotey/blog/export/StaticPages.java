@@ -0,0 +1,78 @@
+package com.mydotey.blog.export;
+
+import com.mydotey.blog.dto.PostDTO;
+import com.mydotey.blog.dto.PostSummaryDTO;
+import com.mydotey.blog.dto.TagDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.web.util.HtmlUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * 静态导出用的最简 HTML 模板，正文使用服务端渲染好的 HTML。
+ */
+final class StaticPages {
+
+    private StaticPages() {
+    }
+
+    static byte[] post(PostDTO post) {
+        StringBuilder body = new StringBuilder()
+            .append("<article>\n<h1>").append(escape(post.getTitle())).append("</h1>\n")
+            .append("<p class=\"meta\">").append(post.getCreatedAt()).append(tags(post.getTags())).append("</p>\n");
+        if (post.getSummary() != null) {
+            body.append("<p class=\"summary\">").append(escape(post.getSummary())).append("</p>\n");
+        }
+        body.append("<div class=\"content\">\n").append(post.getContentHtml()).append("</div>\n</article>\n");
+        return page(post.getTitle(), "/api/posts/" + post.getSlug() + ".json", body);
+    }
+
+    static byte[] listing(Page<PostSummaryDTO> page, TagDTO tag) {
+        String base = tag == null ? "/page/" : "/tag/" + tag.getSlug() + "/";
+        StringBuilder body = new StringBuilder();
+        if (tag != null) {
+            body.append("<h1>").append(escape(tag.getName())).append("</h1>\n");
+        }
+        body.append("<ul>\n");
+        for (PostSummaryDTO post : page.getContent()) {
+            body.append("<li><a href=\"/posts/").append(escape(post.getSlug())).append(".html\">")
+                .append(escape(post.getTitle())).append("</a>");
+            if (post.getSummary() != null) {
+                body.append("<p>").append(escape(post.getSummary())).append("</p>");
+            }
+            body.append("</li>\n");
+        }
+        body.append("</ul>\n<nav>");
+        if (page.hasPrevious()) {
+            body.append("<a rel=\"prev\" href=\"").append(base).append(page.getNumber() - 1).append(".html\">上一页</a> ");
+        }
+        if (page.hasNext()) {
+            body.append("<a rel=\"next\" href=\"").append(base).append(page.getNumber() + 1).append(".html\">下一页</a>");
+        }
+        body.append("</nav>\n");
+        String json = (tag == null ? "/api/lists/posts/" : "/api/lists/tags/" + tag.getSlug() + "/")
+            + page.getNumber() + ".json";
+        return page(tag == null ? "AI 博客" : tag.getName(), json, body);
+    }
+
+    private static byte[] page(String title, String json, CharSequence body) {
+        String html = "<!DOCTYPE html>\n<html lang=\"zh-CN\">\n<head>\n<meta charset=\"UTF-8\">\n"
+            + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n"
+            + "<title>" + escape(title) + "</title>\n"
+            + "<link rel=\"alternate\" type=\"application/json\" href=\"" + escape(json) + "\">\n"
+            + "</head>\n<body>\n" + body + "</body>\n</html>\n";
+        return html.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String tags(Set<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return "";
+        }
+        return " · " + escape(String.join(", ", tags));
+    }
+
+    private static String escape(String text) {
+        return text == null ? "" : HtmlUtils.htmlEscape(text, "UTF-8");
+    }
+}
@@ -0,0 +1,123 @@
+package com.mydotey.blog.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mydotey.blog.util.ClientIp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按客户端 IP 和接口类别限流：登录、发表评论、搜索各自一个令牌桶。其他请求不受影响。
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public enum RouteClass {
+        LOGIN, COMMENT, SEARCH
+    }
+
+    private final boolean enabled;
+    private final Map<RouteClass, RateLimiter> limiters = new EnumMap<>(RouteClass.class);
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        @Value("${blog.rate-limit.enabled:true}") boolean enabled,
+        @Value("${blog.rate-limit.login.capacity:5}") int loginCapacity,
+        @Value("${blog.rate-limit.login.period:1m}") Duration loginPeriod,
+        @Value("${blog.rate-limit.comment.capacity:5}") int commentCapacity,
+        @Value("${blog.rate-limit.comment.period:1m}") Duration commentPeriod,
+        @Value("${blog.rate-limit.search.capacity:30}") int searchCapacity,
+        @Value("${blog.rate-limit.search.period:1m}") Duration searchPeriod
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        limiters.put(RouteClass.LOGIN, new RateLimiter(loginCapacity, loginPeriod));
+        limiters.put(RouteClass.COMMENT, new RateLimiter(commentCapacity, commentPeriod));
+        limiters.put(RouteClass.SEARCH, new RateLimiter(searchCapacity, searchPeriod));
+        for (RouteClass routeClass : RouteClass.values()) {
+            rejected.put(routeClass, Counter.builder("blog.rate-limit.rejected")
+                .description("Requests rejected by the rate limiter")
+                .tag("route", routeClass.name().toLowerCase())
+                .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteClass routeClass = enabled ? classify(request) : null;
+        if (routeClass != null) {
+            long wait = limiters.get(routeClass).tryAcquire(ClientIp.resolve(request), System.nanoTime());
+            if (wait > 0) {
+                rejected.get(routeClass).increment();
+                reject(response, wait);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    public static RouteClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        if ("POST".equals(method)) {
+            if ("/api/auth/login".equals(uri)) {
+                return RouteClass.LOGIN;
+            }
+            if ("/api/comments".equals(uri)) {
+                return RouteClass.COMMENT;
+            }
+        } else if ("GET".equals(method) && "/api/posts".equals(uri)) {
+            String search = request.getParameter("search");
+            if (search != null && !search.isEmpty()) {
+                return RouteClass.SEARCH;
+            }
+        }
+        return null;
+    }
+
+    // 补满的桶与新建的桶等价，定时删掉，扫描器换 IP 刷接口时内存也不会一直增长
+    @Scheduled(fixedDelayString = "${blog.rate-limit.sweep-interval:30000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (RateLimiter limiter : limiters.values()) {
+            limiter.evictIdle(now);
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "请求过于频繁，请稍后再试");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
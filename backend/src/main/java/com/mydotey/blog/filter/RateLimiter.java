@@ -0,0 +1,60 @@
+package com.mydotey.blog.filter;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 按 key 限流的令牌桶，用 GCRA 实现：每个 key 只保存一个“理论到达时间”，用 CAS 更新，不加锁。
+ * 桶补满后记录即可删除（与新建的桶等价），所以空闲 key 会被 {@link #evictIdle(long)} 清掉，内存随活跃客户端数而定。
+ */
+public class RateLimiter {
+
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity 桶容量，即允许的突发请求数
+     * @param period   补满 capacity 个令牌所需的时间
+     */
+    public RateLimiter(int capacity, Duration period) {
+        if (capacity < 1 || period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Invalid rate limit: " + capacity + " per " + period);
+        }
+        this.emissionInterval = period.toNanos() / capacity;
+        this.burstTolerance = emissionInterval * (capacity - 1);
+    }
+
+    /**
+     * 尝试取一个令牌。返回 0 表示放行，否则返回需要等待的纳秒数。
+     */
+    public long tryAcquire(String key, long now) {
+        AtomicLong tat = buckets.get(key);
+        if (tat == null) {
+            tat = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        }
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long wait = base - burstTolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 删除已经补满的桶。
+     */
+    public void evictIdle(long now) {
+        buckets.values().removeIf(tat -> tat.get() <= now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,43 @@
+package com.mydotey.blog.filter;
+
+import com.mydotey.blog.config.ReplicaReads;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 匿名的公开 GET/HEAD 请求允许只读事务读副本。写请求、管理后台和带登录令牌的请求都留在主库，
+ * 管理员保存后立即刷新页面也能看到自己的修改。未配置副本时没有影响。
+ */
+@Component
+public class ReplicaReadFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!isPublicRead(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ReplicaReads.allow();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaReads.clear();
+        }
+    }
+
+    static boolean isPublicRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        return ("GET".equals(method) || "HEAD".equals(method))
+            && !uri.startsWith("/api/admin") && !uri.startsWith("/actuator")
+            && request.getHeader(HttpHeaders.AUTHORIZATION) == null;
+    }
+}
@@ -8,5 +8,6 @@ import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostIdAndStatus(Long postId, String status);
+    List<Comment> findByPostIdAndStatusOrderByCreatedAtAscIdAsc(Long postId, String status);
     Page<Comment> findByStatus(String status, Pageable pageable);
 }
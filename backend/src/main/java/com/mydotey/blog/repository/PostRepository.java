@@ -1,20 +1,116 @@
 package com.mydotey.blog.repository;
 
+import com.mydotey.blog.config.EntityCacheConfig;
+import com.mydotey.blog.dto.PostSummaryDTO;
 import com.mydotey.blog.entity.Post;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface PostRepository extends JpaRepository<Post, Long> {
+    // 只缓存 slug 到 id 的结果，文章本身从实体缓存读取
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.POST_QUERIES)
+    })
     Optional<Post> findBySlug(String slug);
 
-    Page<Post> findByStatus(String status, Pageable pageable);
+    // 列表查询只投影摘要字段，不读取 content 列
+    String SELECT_SUMMARY = "SELECT new com.mydotey.blog.dto.PostSummaryDTO("
+        + "p.id, p.title, p.slug, p.summary, p.coverImage, p.status, p.views, p.createdAt, p.updatedAt) FROM Post p ";
+
+    @Query(value = SELECT_SUMMARY + "WHERE p.status = :status",
+        countQuery = "SELECT COUNT(p) FROM Post p WHERE p.status = :status")
+    Page<PostSummaryDTO> findSummariesByStatus(String status, Pageable pageable);
+
+    @Query(value = SELECT_SUMMARY + "JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status",
+        countQuery = "SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status")
+    Page<PostSummaryDTO> findSummariesByTagSlugAndStatus(String tagSlug, String status, Pageable pageable);
+
+    @Query(value = SELECT_SUMMARY, countQuery = "SELECT COUNT(p) FROM Post p")
+    Page<PostSummaryDTO> findAllSummaries(Pageable pageable);
+
+    @Query(SELECT_SUMMARY + "WHERE p.id IN :ids")
+    List<PostSummaryDTO> findSummariesByIdIn(Collection<Long> ids);
+
+    // 游标分页：按 (createdAt, id) 倒序 seek，不做 OFFSET 扫描也不做 count
+    @Query(SELECT_SUMMARY + "WHERE p.status = :status AND (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryDTO> findSummariesByStatusAfter(String status, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_SUMMARY + "JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status AND (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryDTO> findSummariesByTagSlugAndStatusAfter(String tagSlug, String status, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_SUMMARY + "WHERE (p.createdAt, p.id) < (:createdAt, :id) ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummaryDTO> findAllSummariesAfter(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(value = "SELECT post_id AS postId, tag_id AS tagId FROM post_tags WHERE post_id IN (:postIds)", nativeQuery = true)
+    List<PostTagRow> findTagIdsByPostIdIn(Collection<Long> postIds);
+
+    long countByStatus(String status);
+
+    @Query("SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status")
+    long countByTagSlugAndStatus(String tagSlug, String status);
+
+    // 列表里排在 createdAt 之前的文章数，即该时间的文章在列表中的位置
+    long countByStatusAndCreatedAtAfter(String status, LocalDateTime createdAt);
+
+    @Query("SELECT COUNT(p) FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status AND p.createdAt > :createdAt")
+    long countByTagSlugAndStatusAndCreatedAtAfter(String tagSlug, String status, LocalDateTime createdAt);
+
+    @Query("SELECT p.id FROM Post p WHERE p.status = :status ORDER BY p.id")
+    List<Long> findIdsByStatus(String status);
+
+    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.tags WHERE p.id IN :ids")
+    List<Post> findAllWithTagsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT DISTINCT p FROM Post p LEFT JOIN FETCH p.tags WHERE p.slug IN :slugs")
+    List<Post> findAllWithTagsBySlugIn(Collection<String> slugs);
+
+    // 批量操作直接执行 UPDATE/DELETE，不逐条加载实体
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Post p SET p.status = :status, p.updatedAt = :updatedAt WHERE p.id IN :ids")
+    int updateStatusByIdIn(Collection<Long> ids, String status, LocalDateTime updatedAt);
+
+    // 声明影响的表，二级缓存只清理文章标签集合，而不是全部区域
+    @Modifying
+    @Query(value = "DELETE FROM post_tags WHERE post_id IN (:ids)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "post_tags"))
+    int deleteTagLinksByPostIdIn(Collection<Long> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Post p WHERE p.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastUpdated, SUM(p.id) AS idSum FROM Post p WHERE p.status = :status")
+    StatusFingerprint getFingerprint(String status);
+
+    @Query("SELECT p.id AS id, p.updatedAt AS updatedAt FROM Post p WHERE p.slug = :slug AND p.status = 'PUBLISHED'")
+    Optional<PostVersion> findPublishedVersionBySlug(String slug);
+
+    interface PostVersion {
+        Long getId();
+        LocalDateTime getUpdatedAt();
+    }
 
-    @Query("SELECT p FROM Post p JOIN p.tags t WHERE t.slug = :tagSlug AND p.status = :status")
-    Page<Post> findByTagSlugAndStatus(String tagSlug, String status, Pageable pageable);
+    interface PostTagRow {
+        Long getPostId();
+        Long getTagId();
+    }
 
-    @Query("SELECT p FROM Post p WHERE p.status = :status AND (LOWER(p.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(p.content) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    Page<Post> searchByKeyword(String keyword, String status, Pageable pageable);
+    interface StatusFingerprint {
+        long getCount();
+        LocalDateTime getLastUpdated();
+        Long getIdSum();
+    }
 }
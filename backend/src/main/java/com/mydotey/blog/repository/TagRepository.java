@@ -1,10 +1,36 @@
 package com.mydotey.blog.repository;
 
+import com.mydotey.blog.config.EntityCacheConfig;
 import com.mydotey.blog.entity.Tag;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TagRepository extends JpaRepository<Tag, Long> {
+    // 查询结果（标签 id）进二级查询缓存，tags 表经 Hibernate 写入后自动失效
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.TAG_QUERIES)
+    })
     Optional<Tag> findBySlug(String slug);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.TAG_QUERIES)
+    })
     Optional<Tag> findByName(String name);
+
+    // 对查到的标签加共享锁（PostgreSQL 为 FOR SHARE）直到事务结束：孤儿标签清理对同一行加 FOR UPDATE，
+    // 会等引用它的文章提交后再判断是否还有引用，不会删掉刚被引用、post_tags 还未提交的标签
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT t FROM Tag t WHERE t.name IN :names OR t.slug IN :slugs")
+    List<Tag> findByNameInOrSlugIn(Collection<String> names, Collection<String> slugs);
 }
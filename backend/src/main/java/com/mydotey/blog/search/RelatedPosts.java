@@ -0,0 +1,448 @@
+package com.mydotey.blog.search;
+
+import com.mydotey.blog.dto.RelatedPostDTO;
+import com.mydotey.blog.entity.Post;
+import com.mydotey.blog.entity.Tag;
+import com.mydotey.blog.export.StaticExportRunner;
+import com.mydotey.blog.repository.PostRepository;
+import com.mydotey.blog.service.PostChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 相关文章：为每篇已发布文章预先算好最相似的 K 篇，接口直接读取结果。
+ * 相似度 = 标签 Jaccard 与正文 MinHash（取每篇 TF-IDF 最高的若干词估计 Jaccard）的加权和。
+ * 候选文章只取有共同标签或 MinHash 分段（LSH）落入同一桶的文章，不与全部文章两两比较。
+ * 计算在后台单线程中进行，文章变更时只重算该文章、引用了它的文章，以及它可能挤进前 K 的文章。
+ */
+@Component
+public class RelatedPosts {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedPosts.class);
+
+    private static final int NUM_HASHES = 64;
+    private static final int BANDS = 16;
+    private static final int ROWS = NUM_HASHES / BANDS;
+    // 每篇文章参与 MinHash 的词数
+    private static final int MAX_TERMS = 64;
+    // 文章数超过此值的标签过于宽泛，只参与打分，不用来找候选
+    private static final int MAX_TAG_CANDIDATES = 1000;
+    private static final float MIN_SCORE = 0.05f;
+    private static final int REBUILD_BATCH_SIZE = 200;
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float SUMMARY_WEIGHT = 2f;
+    private static final float CONTENT_WEIGHT = 1f;
+
+    private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(NUM_HASHES).toArray();
+
+    // tags 为排好序的标签 id；signature 为 null 表示正文没有可用的词
+    private record Doc(long id, String slug, String title, String summary, String coverImage,
+                       LocalDateTime createdAt, long[] tags, int[] signature) {
+    }
+
+    // 按 score 从高到低排列
+    private record Neighbours(long[] ids, float[] scores) {
+
+        static final Neighbours EMPTY = new Neighbours(new long[0], new float[0]);
+
+        boolean contains(long id) {
+            for (long neighbour : ids) {
+                if (neighbour == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record Scored(long id, float score, LocalDateTime createdAt) {
+    }
+
+    private final PostRepository postRepository;
+    private final SearchIndex searchIndex;
+    private final int size;
+    private final float tagWeight;
+    private final ExecutorService executor;
+
+    // 以下结构只在后台线程中修改；docs、idBySlug、related 同时被请求线程读取
+    private volatile Map<Long, Doc> docs = new ConcurrentHashMap<>();
+    private volatile Map<String, Long> idBySlug = new ConcurrentHashMap<>();
+    private volatile Map<Long, Neighbours> related = new ConcurrentHashMap<>();
+    private Map<Long, List<Long>> buckets = new HashMap<>();
+    private Map<Long, Set<Long>> tagPosts = new HashMap<>();
+
+    public RelatedPosts(
+        PostRepository postRepository,
+        SearchIndex searchIndex,
+        @Value("${blog.related.size:5}") int size,
+        @Value("${blog.related.tag-weight:0.4}") float tagWeight
+    ) {
+        this.postRepository = postRepository;
+        this.searchIndex = searchIndex;
+        this.size = size;
+        this.tagWeight = tagWeight;
+        this.executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("related-posts").daemon().factory());
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @EventListener
+    public void init(ApplicationReadyEvent event) {
+        // 一次性静态导出用不到相关文章
+        if (StaticExportRunner.isExportMode(event.getArgs())) {
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * 在后台从数据库全量重算。完成之前接口返回的仍是旧结果。
+     */
+    public Future<?> rebuild() {
+        return executor.submit(() -> {
+            try {
+                rebuildNow();
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebuild related posts", e);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        executor.execute(() -> {
+            try {
+                update(event.postId());
+            } catch (RuntimeException e) {
+                log.warn("Failed to update related posts for post {}", event.postId(), e);
+            }
+        });
+    }
+
+    public List<RelatedPostDTO> related(String slug) {
+        Long id = idBySlug.get(slug);
+        Neighbours neighbours = id == null ? null : related.get(id);
+        if (neighbours == null) {
+            return List.of();
+        }
+        Map<Long, Doc> current = docs;
+        List<RelatedPostDTO> result = new ArrayList<>(neighbours.ids().length);
+        for (int i = 0; i < neighbours.ids().length; i++) {
+            Doc doc = current.get(neighbours.ids()[i]);
+            if (doc != null) {
+                result.add(new RelatedPostDTO(doc.id(), doc.title(), doc.slug(), doc.summary(), doc.coverImage(),
+                    doc.createdAt(), neighbours.scores()[i]));
+            }
+        }
+        return result;
+    }
+
+    private void rebuildNow() {
+        long start = System.currentTimeMillis();
+        Map<Long, Doc> newDocs = new ConcurrentHashMap<>();
+        Map<String, Long> newIdBySlug = new ConcurrentHashMap<>();
+        Map<Long, List<Long>> newBuckets = new HashMap<>();
+        Map<Long, Set<Long>> newTagPosts = new HashMap<>();
+        List<Long> ids = postRepository.findIdsByStatus("PUBLISHED");
+        for (int i = 0; i < ids.size(); i += REBUILD_BATCH_SIZE) {
+            List<Long> batch = ids.subList(i, Math.min(i + REBUILD_BATCH_SIZE, ids.size()));
+            for (Post post : postRepository.findAllWithTagsByIdIn(batch)) {
+                Doc doc = analyze(post);
+                newDocs.put(doc.id(), doc);
+                newIdBySlug.put(doc.slug(), doc.id());
+                addToIndex(newBuckets, newTagPosts, doc);
+            }
+        }
+        Map<Long, Neighbours> newRelated = new ConcurrentHashMap<>();
+        for (Doc doc : newDocs.values()) {
+            newRelated.put(doc.id(), topK(doc, newDocs, newBuckets, newTagPosts));
+        }
+        buckets = newBuckets;
+        tagPosts = newTagPosts;
+        docs = newDocs;
+        related = newRelated;
+        idBySlug = newIdBySlug;
+        log.info("Computed related posts for {} posts in {} ms", newDocs.size(), System.currentTimeMillis() - start);
+    }
+
+    private void update(Long postId) {
+        List<Post> posts = postRepository.findAllWithTagsByIdIn(List.of(postId));
+        Post post = posts.isEmpty() || !"PUBLISHED".equals(posts.get(0).getStatus()) ? null : posts.get(0);
+
+        Doc old = docs.remove(postId);
+        if (old != null) {
+            removeFromIndex(old);
+            idBySlug.remove(old.slug(), postId);
+        }
+        Doc doc = post == null ? null : analyze(post);
+        if (doc != null) {
+            docs.put(postId, doc);
+            idBySlug.put(doc.slug(), postId);
+            addToIndex(buckets, tagPosts, doc);
+            related.put(postId, topK(doc, docs, buckets, tagPosts));
+        } else {
+            related.remove(postId);
+        }
+
+        // 原来把这篇列为相关的文章，分数变了或文章已下线，重算
+        Set<Long> recomputed = new HashSet<>();
+        for (Map.Entry<Long, Neighbours> entry : related.entrySet()) {
+            Long id = entry.getKey();
+            Doc other = docs.get(id);
+            if (!id.equals(postId) && other != null && entry.getValue().contains(postId)) {
+                related.put(id, topK(other, docs, buckets, tagPosts));
+                recomputed.add(id);
+            }
+        }
+        // 这篇可能挤进候选文章的前 K
+        if (doc != null) {
+            for (Long id : candidates(doc, buckets, tagPosts)) {
+                Doc other = docs.get(id);
+                if (other != null && !recomputed.contains(id)) {
+                    offer(id, postId, score(other, doc));
+                }
+            }
+        }
+    }
+
+    private void offer(Long id, long candidate, float score) {
+        Neighbours current = related.getOrDefault(id, Neighbours.EMPTY);
+        int n = current.ids().length;
+        if (score < MIN_SCORE || (n >= size && score <= current.scores()[n - 1])) {
+            return;
+        }
+        int length = Math.min(n + 1, size);
+        long[] ids = new long[length];
+        float[] scores = new float[length];
+        int j = 0;
+        boolean inserted = false;
+        for (int i = 0; i < n && j < length; i++) {
+            if (!inserted && score > current.scores()[i]) {
+                ids[j] = candidate;
+                scores[j++] = score;
+                inserted = true;
+                if (j == length) {
+                    break;
+                }
+            }
+            ids[j] = current.ids()[i];
+            scores[j++] = current.scores()[i];
+        }
+        if (!inserted) {
+            ids[j] = candidate;
+            scores[j] = score;
+        }
+        related.put(id, new Neighbours(ids, scores));
+    }
+
+    private Neighbours topK(Doc doc, Map<Long, Doc> allDocs, Map<Long, List<Long>> allBuckets,
+                            Map<Long, Set<Long>> allTagPosts) {
+        // 小顶堆保留分数最高的 size 篇，同分时较新的文章优先
+        PriorityQueue<Scored> heap = new PriorityQueue<>((a, b) -> a.score() != b.score()
+            ? Float.compare(a.score(), b.score())
+            : a.createdAt().compareTo(b.createdAt()));
+        for (Long id : candidates(doc, allBuckets, allTagPosts)) {
+            Doc other = allDocs.get(id);
+            if (other == null) {
+                continue;
+            }
+            float score = score(doc, other);
+            if (score >= MIN_SCORE) {
+                heap.add(new Scored(id, score, other.createdAt()));
+                if (heap.size() > size) {
+                    heap.poll();
+                }
+            }
+        }
+        int n = heap.size();
+        long[] ids = new long[n];
+        float[] scores = new float[n];
+        for (int i = n - 1; i >= 0; i--) {
+            Scored scored = heap.poll();
+            ids[i] = scored.id();
+            scores[i] = scored.score();
+        }
+        return new Neighbours(ids, scores);
+    }
+
+    private Set<Long> candidates(Doc doc, Map<Long, List<Long>> allBuckets, Map<Long, Set<Long>> allTagPosts) {
+        Set<Long> result = new HashSet<>();
+        for (long tag : doc.tags()) {
+            Set<Long> posts = allTagPosts.get(tag);
+            if (posts != null && posts.size() <= MAX_TAG_CANDIDATES) {
+                result.addAll(posts);
+            }
+        }
+        if (doc.signature() != null) {
+            for (int band = 0; band < BANDS; band++) {
+                List<Long> bucket = allBuckets.get(bucketKey(doc.signature(), band));
+                if (bucket != null) {
+                    result.addAll(bucket);
+                }
+            }
+        }
+        result.remove(doc.id());
+        return result;
+    }
+
+    private float score(Doc a, Doc b) {
+        float content = 0;
+        if (a.signature() != null && b.signature() != null) {
+            int same = 0;
+            for (int i = 0; i < NUM_HASHES; i++) {
+                if (a.signature()[i] == b.signature()[i]) {
+                    same++;
+                }
+            }
+            content = (float) same / NUM_HASHES;
+        }
+        return tagWeight * jaccard(a.tags(), b.tags()) + (1 - tagWeight) * content;
+    }
+
+    private static float jaccard(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int i = 0;
+        int j = 0;
+        int common = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                common++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (float) common / (a.length + b.length - common);
+    }
+
+    private static void addToIndex(Map<Long, List<Long>> allBuckets, Map<Long, Set<Long>> allTagPosts, Doc doc) {
+        for (long tag : doc.tags()) {
+            allTagPosts.computeIfAbsent(tag, t -> new HashSet<>()).add(doc.id());
+        }
+        if (doc.signature() != null) {
+            for (int band = 0; band < BANDS; band++) {
+                allBuckets.computeIfAbsent(bucketKey(doc.signature(), band), k -> new ArrayList<>()).add(doc.id());
+            }
+        }
+    }
+
+    private void removeFromIndex(Doc doc) {
+        for (long tag : doc.tags()) {
+            Set<Long> posts = tagPosts.get(tag);
+            if (posts != null) {
+                posts.remove(doc.id());
+                if (posts.isEmpty()) {
+                    tagPosts.remove(tag);
+                }
+            }
+        }
+        if (doc.signature() != null) {
+            for (int band = 0; band < BANDS; band++) {
+                long key = bucketKey(doc.signature(), band);
+                List<Long> bucket = buckets.get(key);
+                if (bucket != null) {
+                    bucket.remove(doc.id());
+                    if (bucket.isEmpty()) {
+                        buckets.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long bucketKey(int[] signature, int band) {
+        long h = band;
+        for (int r = 0; r < ROWS; r++) {
+            h = h * 0x100000001B3L + signature[band * ROWS + r];
+        }
+        return mix(h);
+    }
+
+    private Doc analyze(Post post) {
+        long[] tags = post.getTags() == null ? new long[0]
+            : post.getTags().stream().mapToLong(Tag::getId).sorted().toArray();
+        return new Doc(post.getId(), post.getSlug(), post.getTitle(), post.getSummary(), post.getCoverImage(),
+            post.getCreatedAt() == null ? LocalDateTime.MIN : post.getCreatedAt(), tags, signature(post));
+    }
+
+    // 取 TF-IDF 最高的 MAX_TERMS 个词做 MinHash，常见词不参与，短文和长文也可比较
+    private int[] signature(Post post) {
+        Map<String, Float> tf = new HashMap<>();
+        addField(tf, post.getTitle(), TITLE_WEIGHT);
+        addField(tf, post.getSummary(), SUMMARY_WEIGHT);
+        addField(tf, post.getContent(), CONTENT_WEIGHT);
+        if (tf.isEmpty()) {
+            return null;
+        }
+        int n = Math.max(searchIndex.size(), 1);
+        PriorityQueue<Map.Entry<String, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<String, Float> entry : tf.entrySet()) {
+            int df = searchIndex.documentFrequency(entry.getKey());
+            double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            top.add(Map.entry(entry.getKey(), entry.getValue() * idf));
+            if (top.size() > MAX_TERMS) {
+                top.poll();
+            }
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (Map.Entry<String, Double> entry : top) {
+            long termHash = entry.getKey().hashCode();
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int h = (int) mix(termHash ^ SEEDS[i]);
+                if (h < signature[i]) {
+                    signature[i] = h;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private static void addField(Map<String, Float> tf, String text, float weight) {
+        for (String token : Tokenizer.tokenize(text)) {
+            tf.merge(token, weight, Float::sum);
+        }
+    }
+
+    // MurmurHash3 fmix64
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
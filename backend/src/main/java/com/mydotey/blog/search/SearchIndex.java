@@ -0,0 +1,392 @@
+package com.mydotey.blog.search;
+
+import com.mydotey.blog.entity.Post;
+import com.mydotey.blog.entity.Tag;
+import com.mydotey.blog.export.StaticExportRunner;
+import com.mydotey.blog.repository.PostRepository;
+import com.mydotey.blog.service.PostChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 已发布文章的内存倒排索引，按 BM25 排序。文章变更时增量更新，启动时从快照加载或从数据库重建。
+ */
+@Component
+public class SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    private static final int SNAPSHOT_VERSION = 2;
+    private static final int REBUILD_BATCH_SIZE = 200;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float TAG_WEIGHT = 3f;
+    private static final float SUMMARY_WEIGHT = 2f;
+    private static final float CONTENT_WEIGHT = 1f;
+
+    private record Document(long createdAt, float length, Map<String, Float> terms) {
+    }
+
+    private record Hit(long id, double score, long createdAt) {
+    }
+
+    private final PostRepository postRepository;
+    private final Path snapshotPath;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Map<Long, Float>> postings = new HashMap<>();
+    private Map<Long, Document> documents = new HashMap<>();
+    private double totalLength;
+
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    public SearchIndex(PostRepository postRepository, @Value("${blog.search.snapshot-path:}") String snapshotPath) {
+        this.postRepository = postRepository;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    // 先于 RelatedPosts 初始化，相关文章计算要用这里的文档频率
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void init(ApplicationReadyEvent event) {
+        // 一次性静态导出用不到索引，不加载也不重建
+        if (StaticExportRunner.isExportMode(event.getArgs())) {
+            return;
+        }
+        String fingerprint = fingerprint();
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            try {
+                if (loadSnapshot(fingerprint)) {
+                    ready = true;
+                    log.info("Loaded search index snapshot with {} documents", size());
+                    return;
+                }
+                log.info("Search index snapshot is stale, rebuilding");
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to load search index snapshot, rebuilding", e);
+            }
+        }
+        rebuild();
+        ready = true;
+    }
+
+    public void rebuild() {
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            Map<String, Map<Long, Float>> newPostings = new HashMap<>();
+            Map<Long, Document> newDocuments = new HashMap<>();
+            double newTotalLength = 0;
+
+            List<Long> ids = postRepository.findIdsByStatus("PUBLISHED");
+            for (int i = 0; i < ids.size(); i += REBUILD_BATCH_SIZE) {
+                List<Long> batch = ids.subList(i, Math.min(i + REBUILD_BATCH_SIZE, ids.size()));
+                for (Post post : postRepository.findAllWithTagsByIdIn(batch)) {
+                    Document document = analyze(post);
+                    newDocuments.put(post.getId(), document);
+                    addPostings(newPostings, post.getId(), document);
+                    newTotalLength += document.length();
+                }
+            }
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                documents = newDocuments;
+                totalLength = newTotalLength;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Rebuilt search index with {} documents", newDocuments.size());
+        } finally {
+            rebuilding = false;
+        }
+
+        // 重建期间发生的变更可能没有进入新索引，这里补一次
+        for (Long id : changedDuringRebuild) {
+            reindex(id);
+        }
+        changedDuringRebuild.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (rebuilding) {
+            changedDuringRebuild.add(event.postId());
+        }
+        if (event.after() != null && event.after().isPublished()) {
+            reindex(event.postId());
+        } else {
+            remove(event.postId());
+        }
+    }
+
+    public void index(Post post) {
+        Document document = analyze(post);
+        lock.writeLock().lock();
+        try {
+            removeLocked(post.getId());
+            documents.put(post.getId(), document);
+            addPostings(postings, post.getId(), document);
+            totalLength += document.length();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 包含该词的已发布文章数。
+     */
+    public int documentFrequency(String term) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> list = postings.get(term);
+            return list == null ? 0 : list.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 返回包含全部查询词的文章 id，按相关度从高到低排列。
+     */
+    public List<Long> search(String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Map<Long, Float>> lists = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                Map<Long, Float> list = postings.get(term);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(Map::size));
+
+            int n = documents.size();
+            double avgLength = n == 0 ? 1 : totalLength / n;
+            double[] idf = new double[lists.size()];
+            for (int i = 0; i < lists.size(); i++) {
+                int df = lists.get(i).size();
+                idf[i] = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+            }
+
+            List<Hit> hits = new ArrayList<>(lists.get(0).size());
+            candidates:
+            for (Long id : lists.get(0).keySet()) {
+                Document document = documents.get(id);
+                double norm = K1 * (1 - B + B * document.length() / avgLength);
+                double score = 0;
+                for (int i = 0; i < lists.size(); i++) {
+                    Float tf = lists.get(i).get(id);
+                    if (tf == null) {
+                        continue candidates;
+                    }
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                }
+                hits.add(new Hit(id, score, document.createdAt()));
+            }
+
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                .thenComparing(Comparator.comparingLong(Hit::createdAt).reversed()));
+            List<Long> ids = new ArrayList<>(hits.size());
+            for (Hit hit : hits) {
+                ids.add(hit.id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void saveSnapshot() {
+        // 索引尚未完成初始化时写出的快照会是不完整的
+        if (snapshotPath == null || !ready || rebuilding) {
+            return;
+        }
+        try {
+            writeSnapshot(fingerprint());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to save search index snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    private void reindex(Long postId) {
+        List<Post> posts = postRepository.findAllWithTagsByIdIn(List.of(postId));
+        if (posts.isEmpty() || !"PUBLISHED".equals(posts.get(0).getStatus())) {
+            remove(postId);
+        } else {
+            index(posts.get(0));
+        }
+    }
+
+    private void removeLocked(Long postId) {
+        Document old = documents.remove(postId);
+        if (old == null) {
+            return;
+        }
+        totalLength -= old.length();
+        for (String term : old.terms().keySet()) {
+            Map<Long, Float> list = postings.get(term);
+            if (list != null) {
+                list.remove(postId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addPostings(Map<String, Map<Long, Float>> target, Long postId, Document document) {
+        document.terms().forEach((term, tf) -> target.computeIfAbsent(term, t -> new HashMap<>()).put(postId, tf));
+    }
+
+    private static Document analyze(Post post) {
+        Map<String, Float> terms = new HashMap<>();
+        float length = addField(terms, post.getTitle(), TITLE_WEIGHT)
+            + addField(terms, post.getSummary(), SUMMARY_WEIGHT)
+            + addField(terms, post.getContent(), CONTENT_WEIGHT);
+        if (post.getTags() != null) {
+            for (Tag tag : post.getTags()) {
+                length += addField(terms, tag.getName(), TAG_WEIGHT);
+            }
+        }
+        long createdAt = post.getCreatedAt() == null ? 0 : post.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+        return new Document(createdAt, length, terms);
+    }
+
+    private static float addField(Map<String, Float> terms, String text, float weight) {
+        float length = 0;
+        // 文档里也收录单字，查询只有一个汉字时才有倒排表可查
+        for (String token : Tokenizer.tokenize(text, true)) {
+            terms.merge(token, weight, Float::sum);
+            length += weight;
+        }
+        return length;
+    }
+
+    private String fingerprint() {
+        PostRepository.StatusFingerprint fingerprint = postRepository.getFingerprint("PUBLISHED");
+        return fingerprint.getCount() + "|" + fingerprint.getLastUpdated() + "|" + fingerprint.getIdSum();
+    }
+
+    private void writeSnapshot(String fingerprint) throws IOException {
+        Path parent = snapshotPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, "search-index", ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeUTF(fingerprint);
+            out.writeInt(documents.size());
+            for (Map.Entry<Long, Document> entry : documents.entrySet()) {
+                Document document = entry.getValue();
+                out.writeLong(entry.getKey());
+                out.writeLong(document.createdAt());
+                out.writeInt(document.terms().size());
+                for (Map.Entry<String, Float> term : document.terms().entrySet()) {
+                    out.writeUTF(term.getKey());
+                    out.writeFloat(term.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean loadSnapshot(String fingerprint) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_VERSION || !fingerprint.equals(in.readUTF())) {
+                return false;
+            }
+            Map<String, Map<Long, Float>> newPostings = new HashMap<>();
+            Map<Long, Document> newDocuments = new HashMap<>();
+            double newTotalLength = 0;
+
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long createdAt = in.readLong();
+                int termCount = in.readInt();
+                Map<String, Float> terms = new HashMap<>(termCount * 2);
+                float length = 0;
+                for (int j = 0; j < termCount; j++) {
+                    String term = in.readUTF();
+                    float tf = in.readFloat();
+                    terms.put(term, tf);
+                    length += tf;
+                }
+                Document document = new Document(createdAt, length, terms);
+                newDocuments.put(id, document);
+                addPostings(newPostings, id, document);
+                newTotalLength += length;
+            }
+
+            lock.writeLock().lock();
+            try {
+                postings = newPostings;
+                documents = newDocuments;
+                totalLength = newTotalLength;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return true;
+        }
+    }
+}
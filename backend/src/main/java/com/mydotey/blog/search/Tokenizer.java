@@ -0,0 +1,85 @@
+package com.mydotey.blog.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 中英文混合分词：拉丁字母和数字按单词切分并转小写，中日韩文字按相邻二元组（bigram）切分。
+ * 建索引时用 {@link #tokenize(String, boolean)} 额外输出每个汉字的单字词，单字查询才能命中。
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * @param cjkUnigrams 为 true 时中日韩文字除 bigram 外每个字再输出一个单字词
+     */
+    public static List<String> tokenize(String text, boolean cjkUnigrams) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder word = new StringBuilder();
+        int previousCjk = -1;
+        boolean cjkRunEmitted = false;
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (isCjk(cp)) {
+                flushWord(word, tokens);
+                if (cjkUnigrams) {
+                    tokens.add(new String(Character.toChars(cp)));
+                }
+                if (previousCjk >= 0) {
+                    tokens.add(new StringBuilder(4).appendCodePoint(previousCjk).appendCodePoint(cp).toString());
+                    cjkRunEmitted = true;
+                }
+                previousCjk = cp;
+                continue;
+            }
+
+            flushCjk(previousCjk, cjkRunEmitted || cjkUnigrams, tokens);
+            previousCjk = -1;
+            cjkRunEmitted = false;
+
+            if (Character.isLetterOrDigit(cp)) {
+                word.appendCodePoint(Character.toLowerCase(cp));
+            } else {
+                flushWord(word, tokens);
+            }
+        }
+        flushCjk(previousCjk, cjkRunEmitted || cjkUnigrams, tokens);
+        flushWord(word, tokens);
+        return tokens;
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+            || script == Character.UnicodeScript.HIRAGANA
+            || script == Character.UnicodeScript.KATAKANA
+            || script == Character.UnicodeScript.HANGUL;
+    }
+
+    // 单独出现的汉字没有 bigram，作为单字词保留
+    private static void flushCjk(int previousCjk, boolean runEmitted, List<String> tokens) {
+        if (previousCjk >= 0 && !runEmitted) {
+            tokens.add(new String(Character.toChars(previousCjk)));
+        }
+    }
+
+    private static void flushWord(StringBuilder word, List<String> tokens) {
+        if (!word.isEmpty()) {
+            tokens.add(word.toString());
+            word.setLength(0);
+        }
+    }
+}
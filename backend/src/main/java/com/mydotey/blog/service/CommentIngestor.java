@@ -0,0 +1,172 @@
+package com.mydotey.blog.service;
+
+import com.mydotey.blog.dto.CommentReceipt;
+import com.mydotey.blog.entity.Comment;
+import com.mydotey.blog.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步评论写入：请求线程只把评论放进有界队列，后台线程批量插入数据库；队列满时拒绝新评论。
+ * 入队时就用 Comment 实体的 id 生成器（comments_id_seq，按 50 个一段预取）分配 id 并返回给调用方，
+ * 写库时使用这个 id，与同步写入的评论共用同一个序列段，不会重复。
+ */
+@Component
+public class CommentIngestor {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentIngestor.class);
+
+    private static final String INSERT_SQL = """
+        INSERT INTO comments (id, post_id, parent_id, author_name, author_email, content, status, ip_address, user_agent, created_at)
+        VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+    private final boolean enabled;
+    private final int batchSize;
+    private final BlockingQueue<Comment> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public CommentIngestor(
+        JdbcTemplate jdbcTemplate,
+        EntityManagerFactory entityManagerFactory,
+        MeterRegistry meterRegistry,
+        @Value("${blog.comments.async.enabled:false}") boolean enabled,
+        @Value("${blog.comments.async.queue-capacity:10000}") int queueCapacity,
+        @Value("${blog.comments.async.batch-size:50}") int batchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class).unwrap(SessionFactoryImplementor.class);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("blog.comments.batch.size")
+            .description("Comments written per batch insert")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("blog.comments.rejected")
+            .description("Comments rejected because the ingestion queue was full")
+            .register(meterRegistry);
+        Gauge.builder("blog.comments.queue.depth", queue, BlockingQueue::size)
+            .description("Comments waiting to be written")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("comment-writer").daemon().start(this::drainLoop);
+    }
+
+    public CommentReceipt submit(Comment comment) {
+        if (!running) {
+            rejected.increment();
+            throw new TooManyRequestsException("评论提交过于频繁，请稍后再试");
+        }
+        comment.setId(allocateId(comment));
+        if (!queue.offer(comment)) {
+            rejected.increment();
+            throw new TooManyRequestsException("评论提交过于频繁，请稍后再试");
+        }
+        return new CommentReceipt(comment.getId(), "QUEUED");
+    }
+
+    // 生成器的预取段在整个 SessionFactory 内共享，只有段用完时才查一次序列
+    private Long allocateId(Comment comment) {
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator)
+            sessionFactory.getMappingMetamodel().getEntityDescriptor(Comment.class).getGenerator();
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return (Long) generator.generate((SharedSessionContractImplementor) session, comment, null, EventType.INSERT);
+        }
+    }
+
+    private void drainLoop() {
+        List<Comment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Comment first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Comment> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch.stream().map(CommentIngestor::row).toList());
+            batchSizes.record(batch.size());
+        } catch (RuntimeException e) {
+            // 整批失败时逐条重试，只丢弃确实写不进去的评论（如文章已被删除）
+            log.warn("Batch insert of {} comments failed, retrying one by one", batch.size(), e);
+            for (Comment comment : batch) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, row(comment));
+                    batchSizes.record(1);
+                } catch (RuntimeException ex) {
+                    log.warn("Dropping comment for post {}: {}", comment.getPostId(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Object[] row(Comment comment) {
+        return new Object[]{comment.getId(), comment.getPostId(), comment.getParentId(), comment.getAuthorName(),
+            comment.getAuthorEmail(), comment.getContent(), comment.getStatus(), comment.getIpAddress(),
+            comment.getUserAgent(), Timestamp.valueOf(comment.getCreatedAt())};
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        // 停止接收新评论，等待写线程把队列中剩余的评论写完
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            log.warn("{} queued comments were not written before shutdown", queue.size());
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.mydotey.blog.service;
 
+import com.mydotey.blog.cache.CommentTreeCache;
 import com.mydotey.blog.dto.CommentDTO;
+import com.mydotey.blog.dto.CommentNodeDTO;
+import com.mydotey.blog.dto.CommentReceipt;
 import com.mydotey.blog.dto.CreateCommentRequest;
 import com.mydotey.blog.entity.Comment;
+import com.mydotey.blog.exception.ResourceNotFoundException;
 import com.mydotey.blog.repository.CommentRepository;
+import com.mydotey.blog.repository.PostRepository;
+import com.mydotey.blog.util.ClientIp;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -15,20 +23,65 @@ import java.util.stream.Collectors;
 @Service
 public class CommentService {
 
+    private static final String APPROVED = "APPROVED";
+
     private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final CommentTreeCache treeCache;
+    private final CommentIngestor commentIngestor;
 
-    public CommentService(CommentRepository commentRepository) {
+    public CommentService(CommentRepository commentRepository, PostRepository postRepository,
+                          CommentTreeCache treeCache, CommentIngestor commentIngestor) {
         this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
+        this.treeCache = treeCache;
+        this.commentIngestor = commentIngestor;
     }
 
+    @Transactional(readOnly = true)
     public List<CommentDTO> getApprovedComments(Long postId) {
-        return commentRepository.findByPostIdAndStatus(postId, "APPROVED")
+        return commentRepository.findByPostIdAndStatus(postId, APPROVED)
             .stream()
-            .map(this::toDTO)
+            .map(CommentService::toDTO)
             .collect(Collectors.toList());
     }
 
+    /**
+     * 按顶层评论分页返回评论树，每个顶层评论带完整回复子树和回复总数。
+     */
+    @Transactional(readOnly = true)
+    public Page<CommentNodeDTO> getCommentTree(Long postId, Pageable pageable) {
+        List<CommentNodeDTO> roots = treeCache.get(postId, () ->
+            CommentTree.of(commentRepository.findByPostIdAndStatusOrderByCreatedAtAscIdAsc(postId, APPROVED))).roots();
+        int from = (int) Math.min(pageable.getOffset(), roots.size());
+        int to = Math.min(from + pageable.getPageSize(), roots.size());
+        return new PageImpl<>(roots.subList(from, to), pageable, roots.size());
+    }
+
+    public boolean isAsyncIngestion() {
+        return commentIngestor.isEnabled();
+    }
+
     public CommentDTO createComment(CreateCommentRequest request, HttpServletRequest httpRequest) {
+        return toDTO(commentRepository.save(newComment(request, httpRequest)));
+    }
+
+    /**
+     * 异步模式下只入队，由 {@link CommentIngestor} 批量写入。
+     */
+    public CommentReceipt submitComment(CreateCommentRequest request, HttpServletRequest httpRequest) {
+        return commentIngestor.submit(newComment(request, httpRequest));
+    }
+
+    // 文章或父评论不存在时外键约束会让插入失败，异步模式下评论会在返回 202 之后被静默丢弃，所以入队前先检查
+    private Comment newComment(CreateCommentRequest request, HttpServletRequest httpRequest) {
+        if (!postRepository.existsById(request.getPostId())) {
+            throw new ResourceNotFoundException("文章未找到: ID " + request.getPostId());
+        }
+        if (request.getParentId() != null && commentRepository.findById(request.getParentId())
+            .filter(parent -> parent.getPostId().equals(request.getPostId())).isEmpty()) {
+            throw new ResourceNotFoundException("父评论未找到: ID " + request.getParentId());
+        }
         Comment comment = new Comment();
         comment.setPostId(request.getPostId());
         comment.setParentId(request.getParentId());
@@ -36,36 +89,38 @@ public class CommentService {
         comment.setAuthorEmail(request.getAuthorEmail());
         comment.setContent(request.getContent());
         comment.setStatus("PENDING");
-        comment.setIpAddress(getClientIp(httpRequest));
+        comment.setIpAddress(ClientIp.resolve(httpRequest));
         comment.setUserAgent(httpRequest.getHeader("User-Agent"));
-
-        return toDTO(commentRepository.save(comment));
+        return comment;
     }
 
     public Page<CommentDTO> getAllCommentsForAdmin(Pageable pageable) {
-        return commentRepository.findAll(pageable).map(this::toDTO);
+        return commentRepository.findAll(pageable).map(CommentService::toDTO);
     }
 
     public CommentDTO updateCommentStatus(Long id, String status) {
         Comment comment = commentRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Comment not found"));
+        boolean wasApproved = APPROVED.equals(comment.getStatus());
         comment.setStatus(status);
-        return toDTO(commentRepository.save(comment));
+        Comment saved = commentRepository.save(comment);
+        if (APPROVED.equals(status)) {
+            treeCache.approved(saved);
+        } else if (wasApproved) {
+            treeCache.unapproved(saved);
+        }
+        return toDTO(saved);
     }
 
     public void deleteComment(Long id) {
-        commentRepository.deleteById(id);
-    }
-
-    private String getClientIp(HttpServletRequest request) {
-        String ip = request.getHeader("X-Forwarded-For");
-        if (ip == null || ip.isEmpty()) {
-            ip = request.getRemoteAddr();
-        }
-        return ip;
+        commentRepository.findById(id).ifPresent(comment -> {
+            commentRepository.delete(comment);
+            treeCache.deleted(comment);
+        });
     }
 
-    private CommentDTO toDTO(Comment comment) {
+    // 包级可见，供 JMH 基准测试直接调用
+    static CommentDTO toDTO(Comment comment) {
         CommentDTO dto = new CommentDTO();
         dto.setId(comment.getId());
         dto.setPostId(comment.getPostId());
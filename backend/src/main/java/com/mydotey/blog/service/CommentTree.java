@@ -0,0 +1,135 @@
+package com.mydotey.blog.service;
+
+import com.mydotey.blog.dto.CommentNodeDTO;
+import com.mydotey.blog.entity.Comment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 一篇文章已审核评论组成的树，构建后不再修改；增删评论时基于原列表生成新树。
+ */
+public final class CommentTree {
+
+    private static final Comparator<Comment> ORDER =
+        Comparator.comparing(Comment::getCreatedAt).thenComparing(Comment::getId);
+
+    private final List<Comment> comments;
+    private final List<CommentNodeDTO> roots;
+
+    private CommentTree(List<Comment> comments) {
+        this.comments = comments;
+        this.roots = build(comments);
+    }
+
+    /**
+     * comments 需已按创建时间排序。
+     */
+    public static CommentTree of(List<Comment> comments) {
+        return new CommentTree(List.copyOf(comments));
+    }
+
+    public List<CommentNodeDTO> roots() {
+        return roots;
+    }
+
+    public int size() {
+        return comments.size();
+    }
+
+    public CommentTree with(Comment comment) {
+        List<Comment> updated = new ArrayList<>(comments.size() + 1);
+        for (Comment existing : comments) {
+            if (!existing.getId().equals(comment.getId())) {
+                updated.add(existing);
+            }
+        }
+        int index = Collections.binarySearch(updated, comment, ORDER);
+        updated.add(index < 0 ? -index - 1 : index, comment);
+        return new CommentTree(Collections.unmodifiableList(updated));
+    }
+
+    /**
+     * 移除一条评论；withReplies 为 true 时连同其下所有回复一起移除（对应数据库的级联删除），
+     * 否则其回复成为顶层评论。
+     */
+    public CommentTree without(Long commentId, boolean withReplies) {
+        Set<Long> removed = new HashSet<>();
+        removed.add(commentId);
+        if (withReplies) {
+            Map<Long, List<Long>> children = new HashMap<>();
+            for (Comment comment : comments) {
+                if (comment.getParentId() != null) {
+                    children.computeIfAbsent(comment.getParentId(), k -> new ArrayList<>()).add(comment.getId());
+                }
+            }
+            Deque<Long> pending = new ArrayDeque<>(List.of(commentId));
+            while (!pending.isEmpty()) {
+                for (Long child : children.getOrDefault(pending.poll(), List.of())) {
+                    if (removed.add(child)) {
+                        pending.add(child);
+                    }
+                }
+            }
+        }
+        List<Comment> updated = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            if (!removed.contains(comment.getId())) {
+                updated.add(comment);
+            }
+        }
+        return new CommentTree(Collections.unmodifiableList(updated));
+    }
+
+    // 一次遍历挂接父子关系；父评论未通过审核的回复作为顶层评论展示
+    private static List<CommentNodeDTO> build(List<Comment> comments) {
+        Map<Long, CommentNodeDTO> nodes = new HashMap<>(comments.size() * 2);
+        for (Comment comment : comments) {
+            nodes.put(comment.getId(), toNode(comment));
+        }
+        List<CommentNodeDTO> roots = new ArrayList<>();
+        for (Comment comment : comments) {
+            CommentNodeDTO node = nodes.get(comment.getId());
+            CommentNodeDTO parent = comment.getParentId() == null ? null : nodes.get(comment.getParentId());
+            if (parent == null) {
+                roots.add(node);
+            } else {
+                parent.getReplies().add(node);
+            }
+        }
+
+        // 广度优先序中父节点总在子节点之前，倒序累加即可得到每个子树的回复数
+        List<CommentNodeDTO> order = new ArrayList<>(comments.size());
+        order.addAll(roots);
+        for (int i = 0; i < order.size(); i++) {
+            order.addAll(order.get(i).getReplies());
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            CommentNodeDTO node = order.get(i);
+            int count = 0;
+            for (CommentNodeDTO reply : node.getReplies()) {
+                count += 1 + reply.getReplyCount();
+            }
+            node.setReplyCount(count);
+        }
+        return Collections.unmodifiableList(roots);
+    }
+
+    private static CommentNodeDTO toNode(Comment comment) {
+        CommentNodeDTO node = new CommentNodeDTO();
+        node.setId(comment.getId());
+        node.setParentId(comment.getParentId());
+        node.setAuthorName(comment.getAuthorName());
+        node.setContent(comment.getContent());
+        node.setCreatedAt(comment.getCreatedAt());
+        return node;
+    }
+}
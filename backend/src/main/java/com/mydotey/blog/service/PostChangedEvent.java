@@ -0,0 +1,21 @@
+package com.mydotey.blog.service;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * 文章写操作完成后发布的事件。新建时 before 为 null，删除时 after 为 null。
+ */
+public record PostChangedEvent(Long postId, PostState before, PostState after) {
+
+    public record PostState(String slug, String status, Set<String> tagSlugs, LocalDateTime createdAt) {
+
+        public boolean isPublished() {
+            return "PUBLISHED".equals(status);
+        }
+    }
+
+    public boolean affectsPublished() {
+        return (before != null && before.isPublished()) || (after != null && after.isPublished());
+    }
+}
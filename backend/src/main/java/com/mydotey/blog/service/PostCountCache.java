@@ -0,0 +1,36 @@
+package com.mydotey.blog.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mydotey.blog.cache.CacheLoading;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 游标分页的可选总数。count(*) 结果按列表维度缓存，文章变更后失效。
+ */
+@Component
+public class PostCountCache {
+
+    private final AsyncCache<String, Long> counts;
+
+    public PostCountCache(@Value("${blog.pagination.count-ttl:60s}") Duration ttl) {
+        this.counts = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(ttl)
+            .buildAsync();
+    }
+
+    public long get(String key, Supplier<Long> loader) {
+        return CacheLoading.get(counts, key, loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        counts.synchronous().invalidateAll();
+    }
+}
@@ -0,0 +1,221 @@
+package com.mydotey.blog.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mydotey.blog.dto.CreatePostRequest;
+import com.mydotey.blog.dto.ImportResult;
+import com.mydotey.blog.entity.Post;
+import com.mydotey.blog.entity.Tag;
+import com.mydotey.blog.repository.PostRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 批量导入文章。输入是 JSON 数组或 NDJSON（每行一个对象），边解析边按批写入：
+ * 每批一次查询已有文章、一次解析标签，插入走 JDBC 批量，写完后清空持久化上下文，内存占用与导入总量无关。
+ * 已存在的 slug 视为更新。
+ */
+@Service
+public class PostImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(PostImporter.class);
+
+    private static final int MAX_ERRORS = 100;
+
+    private record Item(int index, CreatePostRequest request) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final PostRepository postRepository;
+    private final TagService tagService;
+    private final PostRenderer postRenderer;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public PostImporter(
+        ObjectMapper objectMapper,
+        Validator validator,
+        PostRepository postRepository,
+        TagService tagService,
+        PostRenderer postRenderer,
+        EntityManager entityManager,
+        TransactionTemplate transactionTemplate,
+        ApplicationEventPublisher eventPublisher,
+        @Value("${blog.import.batch-size:100}") int batchSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.postRepository = postRepository;
+        this.tagService = tagService;
+        this.postRenderer = postRenderer;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    public ImportResult importPosts(InputStream input) throws IOException {
+        ImportResult result = new ImportResult();
+        List<Item> batch = new ArrayList<>(batchSize);
+        try (JsonParser parser = objectMapper.createParser(input)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            int index = 0;
+            while (token == JsonToken.START_OBJECT) {
+                CreatePostRequest request = objectMapper.readValue(parser, CreatePostRequest.class);
+                index++;
+                String invalid = validate(request);
+                if (invalid != null) {
+                    fail(result, index, request.getSlug(), invalid);
+                } else {
+                    batch.add(new Item(index, request));
+                    if (batch.size() >= batchSize) {
+                        write(batch, result);
+                        batch.clear();
+                    }
+                }
+                token = parser.nextToken();
+            }
+            if (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                throw new IllegalArgumentException("导入数据格式错误，第 " + (index + 1) + " 项不是 JSON 对象");
+            }
+        } catch (JsonProcessingException e) {
+            // 之前的批次已经提交，这里只报告出错位置
+            throw new IllegalArgumentException("导入数据不是有效的 JSON（已导入 " + (result.getCreated() + result.getUpdated())
+                + " 篇）: " + e.getOriginalMessage());
+        }
+        if (!batch.isEmpty()) {
+            write(batch, result);
+        }
+        return result;
+    }
+
+    private void write(List<Item> batch, ImportResult result) {
+        try {
+            int[] counts = transactionTemplate.execute(status -> save(batch));
+            result.setCreated(result.getCreated() + counts[0]);
+            result.setUpdated(result.getUpdated() + counts[1]);
+        } catch (RuntimeException e) {
+            // 整批失败时逐条重试，找出具体出错的文章
+            log.warn("Import batch of {} posts failed, retrying one by one", batch.size(), e);
+            for (Item item : batch) {
+                try {
+                    int[] counts = transactionTemplate.execute(status -> save(List.of(item)));
+                    result.setCreated(result.getCreated() + counts[0]);
+                    result.setUpdated(result.getUpdated() + counts[1]);
+                } catch (RuntimeException ex) {
+                    fail(result, item.index(), item.request().getSlug(), rootMessage(ex));
+                }
+            }
+        }
+    }
+
+    // 返回 {新建数, 更新数}
+    private int[] save(List<Item> batch) {
+        // 导入的文章不放进二级缓存，免得把常读的文章挤出去；更新已有文章时仍会让旧缓存失效
+        entityManager.unwrap(Session.class).setCacheMode(CacheMode.IGNORE);
+        Set<String> slugs = batch.stream().map(item -> item.request().getSlug()).collect(Collectors.toSet());
+        Map<String, Post> existing = new HashMap<>();
+        for (Post post : postRepository.findAllWithTagsBySlugIn(slugs)) {
+            existing.put(post.getSlug(), post);
+        }
+        Set<String> tagNames = new HashSet<>();
+        for (Item item : batch) {
+            if (item.request().getTagNames() != null) {
+                tagNames.addAll(item.request().getTagNames());
+            }
+        }
+        Map<String, Tag> tags = tagService.resolveTags(tagNames);
+
+        int created = 0;
+        int updated = 0;
+        List<PostChangedEvent> events = new ArrayList<>(batch.size());
+        for (Item item : batch) {
+            CreatePostRequest request = item.request();
+            Post post = existing.get(request.getSlug());
+            PostChangedEvent.PostState before = post == null ? null : PostService.snapshot(post);
+            if (post == null) {
+                post = new Post();
+            }
+            post.setTitle(request.getTitle());
+            post.setSlug(request.getSlug());
+            post.setContent(request.getContent());
+            post.setSummary(request.getSummary());
+            post.setCoverImage(request.getCoverImage());
+            post.setStatus(request.getStatus());
+            postRenderer.apply(post);
+            if (request.getTagNames() != null) {
+                post.setTags(request.getTagNames().stream().map(tags::get).collect(Collectors.toSet()));
+            } else if (post.getTags() == null) {
+                post.setTags(new HashSet<>());
+            }
+
+            if (before == null) {
+                entityManager.persist(post);
+                // 同一批中重复的 slug，后一条按更新处理
+                existing.put(post.getSlug(), post);
+                created++;
+            } else {
+                updated++;
+            }
+            events.add(new PostChangedEvent(post.getId(), before, PostService.snapshot(post)));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        events.forEach(eventPublisher::publishEvent);
+        return new int[]{created, updated};
+    }
+
+    private String validate(CreatePostRequest request) {
+        Set<ConstraintViolation<CreatePostRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return PostService.isReservedSlug(request.getSlug()) ? "slug 不能使用保留字: " + request.getSlug() : null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + " " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining(", "));
+    }
+
+    private static void fail(ImportResult result, int index, String slug, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_ERRORS) {
+            result.getErrors().add(new ImportResult.Error(index, slug, message));
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
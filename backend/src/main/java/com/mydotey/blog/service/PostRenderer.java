@@ -0,0 +1,244 @@
+package com.mydotey.blog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mydotey.blog.cache.EntityCacheEvictor;
+import com.mydotey.blog.dto.TocEntry;
+import com.mydotey.blog.entity.Post;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.strikethrough.StrikethroughExtension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.node.AbstractVisitor;
+import org.commonmark.node.Code;
+import org.commonmark.node.Heading;
+import org.commonmark.node.Link;
+import org.commonmark.node.Node;
+import org.commonmark.node.Text;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 服务端 Markdown 渲染：原始 HTML 一律转义，标题带 id 并生成目录，代码块保留 language-* 类名供前端高亮。
+ * 渲染结果按内容摘要缓存，并保存在 posts 表中，重启后无需重新渲染。
+ */
+@Component
+public class PostRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(PostRenderer.class);
+
+    // 渲染规则变化时递增，已保存的结果会因摘要不同而在下次读取时重新渲染
+    private static final String RENDER_VERSION = "1";
+
+    private static final String BACKFILL_SQL =
+        "UPDATE posts SET content_hash = ?, content_html = ?, toc = ? WHERE id = ? AND content_hash IS NOT DISTINCT FROM ?";
+
+    private static final List<Extension> EXTENSIONS = List.of(TablesExtension.create(), StrikethroughExtension.create());
+
+    public record Rendered(String hash, String html, List<TocEntry> toc) {
+    }
+
+    private record Backfill(String oldHash, Rendered rendered) {
+    }
+
+    private final Parser parser = Parser.builder().extensions(EXTENSIONS).build();
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCacheEvictor cacheEvictor;
+    private final Cache<String, Rendered> cache;
+    private final Map<Long, Backfill> backfills = new ConcurrentHashMap<>();
+
+    public PostRenderer(
+        ObjectMapper objectMapper,
+        JdbcTemplate jdbcTemplate,
+        EntityCacheEvictor cacheEvictor,
+        MeterRegistry meterRegistry,
+        @Value("${blog.markdown.cache.max-size:500}") long maxSize
+    ) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = cacheEvictor;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "renderedMarkdown");
+    }
+
+    /**
+     * 保存文章前调用，正文有变化时重新渲染并写入实体。
+     */
+    public void apply(Post post) {
+        String hash = hash(post.getContent());
+        if (hash.equals(post.getContentHash()) && post.getContentHtml() != null) {
+            return;
+        }
+        Rendered rendered = render(hash, post.getContent());
+        post.setContentHash(rendered.hash());
+        post.setContentHtml(rendered.html());
+        post.setToc(tocJson(rendered.toc()));
+    }
+
+    /**
+     * 读取文章的渲染结果。旧数据或渲染规则变化时现场渲染，并在后台写回数据库。
+     */
+    public Rendered rendered(Post post) {
+        String hash = hash(post.getContent());
+        if (hash.equals(post.getContentHash()) && post.getContentHtml() != null) {
+            return new Rendered(hash, post.getContentHtml(), parseToc(post.getToc()));
+        }
+        Rendered rendered = render(hash, post.getContent());
+        backfills.put(post.getId(), new Backfill(post.getContentHash(), rendered));
+        return rendered;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.markdown.backfill-interval:10000}")
+    public void flushBackfills() {
+        if (backfills.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>();
+        for (Long postId : List.copyOf(backfills.keySet())) {
+            Backfill backfill = backfills.remove(postId);
+            if (backfill != null) {
+                Rendered rendered = backfill.rendered();
+                batch.add(new Object[]{rendered.hash(), rendered.html(), tocJson(rendered.toc()), postId, backfill.oldHash()});
+            }
+        }
+        try {
+            // 条件中带上旧摘要，期间被编辑过的文章不会被覆盖
+            jdbcTemplate.batchUpdate(BACKFILL_SQL, batch);
+            cacheEvictor.evictPosts(batch.stream().map(row -> (Long) row[3]).toList());
+        } catch (RuntimeException e) {
+            log.warn("Failed to store {} rendered posts, they will be rendered again on next read", batch.size(), e);
+        }
+    }
+
+    private Rendered render(String hash, String markdown) {
+        return cache.get(hash, h -> {
+            Node document = parser.parse(markdown == null ? "" : markdown);
+            Map<Node, String> headingIds = new IdentityHashMap<>();
+            List<TocEntry> toc = new ArrayList<>();
+            Set<String> usedIds = new HashSet<>();
+            document.accept(new AbstractVisitor() {
+                @Override
+                public void visit(Heading heading) {
+                    String text = textOf(heading);
+                    String id = uniqueId(text, usedIds);
+                    headingIds.put(heading, id);
+                    toc.add(new TocEntry(heading.getLevel(), id, text));
+                }
+            });
+
+            HtmlRenderer renderer = HtmlRenderer.builder()
+                .extensions(EXTENSIONS)
+                .escapeHtml(true)
+                .sanitizeUrls(true)
+                .attributeProviderFactory(context -> (node, tagName, attributes) -> {
+                    String id = headingIds.get(node);
+                    if (id != null) {
+                        attributes.put("id", id);
+                    } else if (node instanceof Link) {
+                        attributes.put("rel", "nofollow noopener");
+                    }
+                })
+                .build();
+            return new Rendered(h, renderer.render(document), List.copyOf(toc));
+        });
+    }
+
+    private static String textOf(Node node) {
+        StringBuilder text = new StringBuilder();
+        node.accept(new AbstractVisitor() {
+            @Override
+            public void visit(Text t) {
+                text.append(t.getLiteral());
+            }
+
+            @Override
+            public void visit(Code code) {
+                text.append(code.getLiteral());
+            }
+        });
+        return text.toString().strip();
+    }
+
+    // 保留字母、数字（含中文），其余字符折叠为 -，重复时追加序号
+    private static String uniqueId(String text, Set<String> usedIds) {
+        StringBuilder slug = new StringBuilder();
+        for (int cp : text.toLowerCase(Locale.ROOT).codePoints().toArray()) {
+            if (Character.isLetterOrDigit(cp)) {
+                slug.appendCodePoint(cp);
+            } else if (!slug.isEmpty() && slug.charAt(slug.length() - 1) != '-') {
+                slug.append('-');
+            }
+        }
+        if (!slug.isEmpty() && slug.charAt(slug.length() - 1) == '-') {
+            slug.setLength(slug.length() - 1);
+        }
+        String base = slug.isEmpty() ? "section" : slug.toString();
+        String id = base;
+        for (int i = 1; !usedIds.add(id); i++) {
+            id = base + "-" + i;
+        }
+        return id;
+    }
+
+    private static String hash(String markdown) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(RENDER_VERSION.getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) '\n');
+            if (markdown != null) {
+                sha256.update(markdown.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String tocJson(List<TocEntry> toc) {
+        try {
+            return objectMapper.writeValueAsString(toc);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize table of contents", e);
+        }
+    }
+
+    private List<TocEntry> parseToc(String json) {
+        if (json == null || json.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(json, new TypeReference<>() {
+            });
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring unreadable table of contents", e);
+            return List.of();
+        }
+    }
+}
@@ -1,54 +1,147 @@
 package com.mydotey.blog.service;
 
 import com.mydotey.blog.dto.CreatePostRequest;
+import com.mydotey.blog.dto.CursorPage;
 import com.mydotey.blog.dto.PostDTO;
+import com.mydotey.blog.dto.PostSummaryDTO;
 import com.mydotey.blog.entity.Post;
 import com.mydotey.blog.entity.Tag;
 import com.mydotey.blog.exception.ResourceNotFoundException;
 import com.mydotey.blog.repository.PostRepository;
-import com.mydotey.blog.repository.TagRepository;
+import com.mydotey.blog.search.SearchIndex;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class PostService {
 
+    // /api/posts 下的固定路径，同名 slug 的文章详情永远访问不到
+    private static final Set<String> RESERVED_SLUGS = Set.of("trending");
+
     private final PostRepository postRepository;
-    private final TagRepository tagRepository;
+    private final TagService tagService;
+    private final ViewCounter viewCounter;
+    private final TrendingPosts trendingPosts;
+    private final SearchIndex searchIndex;
+    private final PostCountCache countCache;
+    private final TagCatalog tagCatalog;
+    private final PostRenderer postRenderer;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public PostService(PostRepository postRepository, TagRepository tagRepository) {
+    public PostService(PostRepository postRepository, TagService tagService, ViewCounter viewCounter,
+                       TrendingPosts trendingPosts, SearchIndex searchIndex, PostCountCache countCache, TagCatalog tagCatalog,
+                       PostRenderer postRenderer, ApplicationEventPublisher eventPublisher) {
         this.postRepository = postRepository;
-        this.tagRepository = tagRepository;
+        this.tagService = tagService;
+        this.viewCounter = viewCounter;
+        this.trendingPosts = trendingPosts;
+        this.searchIndex = searchIndex;
+        this.countCache = countCache;
+        this.tagCatalog = tagCatalog;
+        this.postRenderer = postRenderer;
+        this.eventPublisher = eventPublisher;
     }
 
-    public Page<PostDTO> getPublishedPosts(Pageable pageable) {
-        return postRepository.findByStatus("PUBLISHED", pageable).map(this::toDTO);
+    @Transactional(readOnly = true)
+    public Page<PostSummaryDTO> getPublishedPosts(Pageable pageable) {
+        return withTags(postRepository.findSummariesByStatus("PUBLISHED", pageable));
     }
 
-    public Page<PostDTO> getPostsByTag(String tagSlug, Pageable pageable) {
-        return postRepository.findByTagSlugAndStatus(tagSlug, "PUBLISHED", pageable).map(this::toDTO);
+    @Transactional(readOnly = true)
+    public Page<PostSummaryDTO> getPostsByTag(String tagSlug, Pageable pageable) {
+        return withTags(postRepository.findSummariesByTagSlugAndStatus(tagSlug, "PUBLISHED", pageable));
     }
 
-    public Page<PostDTO> searchPosts(String keyword, Pageable pageable) {
-        return postRepository.searchByKeyword(keyword, "PUBLISHED", pageable).map(this::toDTO);
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> getPublishedPostsAfter(String after, int size, boolean withTotal) {
+        PostCursor cursor = PostCursor.decode(after);
+        List<PostSummaryDTO> rows = postRepository.findSummariesByStatusAfter(
+            "PUBLISHED", cursor.createdAt(), cursor.id(), seekLimit(size));
+        Long total = withTotal ? countCache.get("published", () -> postRepository.countByStatus("PUBLISHED")) : null;
+        return toCursorPage(rows, size, total);
     }
 
-    @Transactional
-    public PostDTO getPostBySlug(String slug) {
+    @Transactional(readOnly = true)
+    public CursorPage<PostSummaryDTO> getPostsByTagAfter(String tagSlug, String after, int size, boolean withTotal) {
+        PostCursor cursor = PostCursor.decode(after);
+        List<PostSummaryDTO> rows = postRepository.findSummariesByTagSlugAndStatusAfter(
+            tagSlug, "PUBLISHED", cursor.createdAt(), cursor.id(), seekLimit(size));
+        Long total = withTotal
+            ? countCache.get("tag:" + tagSlug, () -> postRepository.countByTagSlugAndStatus(tagSlug, "PUBLISHED"))
+            : null;
+        return toCursorPage(rows, size, total);
+    }
+
+    // 搜索结果按相关度排序，忽略 pageable 中的排序字段
+    @Transactional(readOnly = true)
+    public Page<PostSummaryDTO> searchPosts(String keyword, Pageable pageable) {
+        List<Long> ids = searchIndex.search(keyword);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        List<Long> pageIds = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+        return new PageImpl<>(getPublishedSummariesByIds(pageIds), pageable, ids.size());
+    }
+
+    /**
+     * 按给定顺序加载已发布文章的摘要（含标签），不存在或未发布的跳过。
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummaryDTO> getPublishedSummariesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PostSummaryDTO> posts = postRepository.findSummariesByIdIn(ids).stream()
+            .filter(post -> "PUBLISHED".equals(post.getStatus()))
+            .collect(Collectors.toMap(PostSummaryDTO::getId, Function.identity()));
+        List<PostSummaryDTO> content = ids.stream()
+            .map(posts::get)
+            .filter(post -> post != null)
+            .collect(Collectors.toList());
+        return withTags(content);
+    }
+
+    /**
+     * html 为 true 时返回服务端渲染的正文和目录，不再返回 Markdown 原文。
+     */
+    @Transactional(readOnly = true)
+    public PostDTO getPostBySlug(String slug, boolean html) {
         Post post = postRepository.findBySlug(slug)
             .filter(p -> "PUBLISHED".equals(p.getStatus()))
             .orElseThrow(() -> new ResourceNotFoundException("文章未找到或未发布: " + slug));
-        post.setViews(post.getViews() + 1);
-        postRepository.save(post);
-        return toDTO(post);
+        return toPublishedDTO(post, html);
     }
 
+    /**
+     * 按 id 批量加载已发布文章的完整内容（含标签和渲染后的正文），一次查询，供静态导出使用。
+     */
+    @Transactional(readOnly = true)
+    public List<PostDTO> getPublishedPostsByIds(List<Long> ids) {
+        return postRepository.findAllWithTagsByIdIn(ids).stream()
+            .filter(p -> "PUBLISHED".equals(p.getStatus()))
+            .map(post -> toPublishedDTO(post, true))
+            .collect(Collectors.toList());
+    }
+
+    public void recordView(Long postId) {
+        viewCounter.increment(postId);
+        trendingPosts.record(postId);
+    }
+
+    @Transactional(readOnly = true)
     public PostDTO getPostById(Long id) {
         Post post = postRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("文章未找到: ID " + id));
@@ -57,6 +150,7 @@ public class PostService {
 
     @Transactional
     public PostDTO createPost(CreatePostRequest request) {
+        checkSlug(request.getSlug());
         Post post = new Post();
         post.setTitle(request.getTitle());
         post.setSlug(request.getSlug());
@@ -64,27 +158,23 @@ public class PostService {
         post.setSummary(request.getSummary());
         post.setCoverImage(request.getCoverImage());
         post.setStatus(request.getStatus());
+        postRenderer.apply(post);
 
         if (request.getTagNames() != null) {
-            Set<Tag> tags = request.getTagNames().stream()
-                .map(name -> tagRepository.findByName(name)
-                    .orElseGet(() -> {
-                        Tag tag = new Tag();
-                        tag.setName(name);
-                        tag.setSlug(name.toLowerCase().replaceAll("\\s+", "-"));
-                        return tagRepository.save(tag);
-                    }))
-                .collect(Collectors.toSet());
-            post.setTags(tags);
+            post.setTags(new HashSet<>(tagService.resolveTags(request.getTagNames()).values()));
         }
 
-        return toDTO(postRepository.save(post));
+        Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(saved.getId(), null, snapshot(saved)));
+        return toDTO(saved);
     }
 
     @Transactional
     public PostDTO updatePost(Long id, CreatePostRequest request) {
+        checkSlug(request.getSlug());
         Post post = postRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("文章未找到: ID " + id));
+        PostChangedEvent.PostState before = snapshot(post);
 
         post.setTitle(request.getTitle());
         post.setSlug(request.getSlug());
@@ -92,32 +182,153 @@ public class PostService {
         post.setSummary(request.getSummary());
         post.setCoverImage(request.getCoverImage());
         post.setStatus(request.getStatus());
+        postRenderer.apply(post);
 
         if (request.getTagNames() != null) {
-            Set<Tag> tags = request.getTagNames().stream()
-                .map(name -> tagRepository.findByName(name)
-                    .orElseGet(() -> {
-                        Tag tag = new Tag();
-                        tag.setName(name);
-                        tag.setSlug(name.toLowerCase().replaceAll("\\s+", "-"));
-                        return tagRepository.save(tag);
-                    }))
-                .collect(Collectors.toSet());
-            post.setTags(tags);
+            post.setTags(new HashSet<>(tagService.resolveTags(request.getTagNames()).values()));
         }
 
-        return toDTO(postRepository.save(post));
+        Post saved = postRepository.save(post);
+        eventPublisher.publishEvent(new PostChangedEvent(id, before, snapshot(saved)));
+        return toDTO(saved);
     }
 
+    @Transactional
     public void deletePost(Long id) {
-        postRepository.deleteById(id);
+        postRepository.findById(id).ifPresent(post -> {
+            PostChangedEvent.PostState before = snapshot(post);
+            postRepository.delete(post);
+            eventPublisher.publishEvent(new PostChangedEvent(id, before, null));
+        });
+        viewCounter.remove(id);
+    }
+
+    /**
+     * 批量修改状态，一条 UPDATE 完成，返回实际修改的文章数。
+     */
+    @Transactional
+    public int updateStatus(Collection<Long> ids, String status) {
+        if (!"DRAFT".equals(status) && !"PUBLISHED".equals(status)) {
+            throw new IllegalArgumentException("无效的文章状态: " + status);
+        }
+        List<Post> posts = postRepository.findAllWithTagsByIdIn(ids);
+        if (posts.isEmpty()) {
+            return 0;
+        }
+        List<Long> found = posts.stream().map(Post::getId).toList();
+        int updated = postRepository.updateStatusByIdIn(found, status, LocalDateTime.now());
+        for (Post post : posts) {
+            PostChangedEvent.PostState before = snapshot(post);
+            PostChangedEvent.PostState after = new PostChangedEvent.PostState(before.slug(), status, before.tagSlugs(),
+                before.createdAt());
+            eventPublisher.publishEvent(new PostChangedEvent(post.getId(), before, after));
+        }
+        return updated;
+    }
+
+    /**
+     * 批量删除，先删标签关联再删文章，各一条 DELETE，返回删除的文章数。
+     */
+    @Transactional
+    public int deletePosts(Collection<Long> ids) {
+        List<Post> posts = postRepository.findAllWithTagsByIdIn(ids);
+        if (posts.isEmpty()) {
+            return 0;
+        }
+        List<Long> found = posts.stream().map(Post::getId).toList();
+        postRepository.deleteTagLinksByPostIdIn(found);
+        int deleted = postRepository.deleteByIdIn(found);
+        for (Post post : posts) {
+            eventPublisher.publishEvent(new PostChangedEvent(post.getId(), snapshot(post), null));
+            viewCounter.remove(post.getId());
+        }
+        return deleted;
     }
 
-    public Page<PostDTO> getAllPostsForAdmin(Pageable pageable) {
-        return postRepository.findAll(pageable).map(this::toDTO);
+    public Page<PostSummaryDTO> getAllPostsForAdmin(Pageable pageable) {
+        return withTags(postRepository.findAllSummaries(pageable));
+    }
+
+    public CursorPage<PostSummaryDTO> getAllPostsForAdminAfter(String after, int size, boolean withTotal) {
+        PostCursor cursor = PostCursor.decode(after);
+        List<PostSummaryDTO> rows = postRepository.findAllSummariesAfter(cursor.createdAt(), cursor.id(), seekLimit(size));
+        Long total = withTotal ? countCache.get("all", postRepository::count) : null;
+        return toCursorPage(rows, size, total);
+    }
+
+    static boolean isReservedSlug(String slug) {
+        return RESERVED_SLUGS.contains(slug);
+    }
+
+    private static void checkSlug(String slug) {
+        if (isReservedSlug(slug)) {
+            throw new IllegalArgumentException("slug 不能使用保留字: " + slug);
+        }
+    }
+
+    private static Limit seekLimit(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size 必须大于 0");
+        }
+        // 多取一行用来判断是否还有下一页
+        return Limit.of(size + 1);
+    }
+
+    private CursorPage<PostSummaryDTO> toCursorPage(List<PostSummaryDTO> rows, int size, Long total) {
+        boolean hasNext = rows.size() > size;
+        List<PostSummaryDTO> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            PostSummaryDTO last = page.get(page.size() - 1);
+            nextCursor = new PostCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(withTags(page), nextCursor, hasNext, total);
+    }
+
+    private Page<PostSummaryDTO> withTags(Page<PostSummaryDTO> page) {
+        withTags(page.getContent());
+        return page;
+    }
+
+    // 一次 post_tags 查询关联整页文章的标签，查询次数与页大小无关
+    private List<PostSummaryDTO> withTags(List<PostSummaryDTO> posts) {
+        if (posts.isEmpty()) {
+            return posts;
+        }
+        Map<Long, PostSummaryDTO> byId = new HashMap<>();
+        for (PostSummaryDTO post : posts) {
+            post.setTags(new HashSet<>());
+            byId.put(post.getId(), post);
+        }
+        for (PostRepository.PostTagRow row : postRepository.findTagIdsByPostIdIn(byId.keySet())) {
+            String name = tagCatalog.name(row.getTagId());
+            if (name != null) {
+                byId.get(row.getPostId()).getTags().add(name);
+            }
+        }
+        return posts;
+    }
+
+    static PostChangedEvent.PostState snapshot(Post post) {
+        Set<String> tagSlugs = post.getTags() == null ? Set.of()
+            : post.getTags().stream().map(Tag::getSlug).collect(Collectors.toSet());
+        return new PostChangedEvent.PostState(post.getSlug(), post.getStatus(), tagSlugs, post.getCreatedAt());
+    }
+
+    private PostDTO toPublishedDTO(Post post, boolean html) {
+        PostDTO dto = toDTO(post);
+        dto.setViews(post.getViews() + viewCounter.pending(post.getId()));
+        if (html) {
+            PostRenderer.Rendered rendered = postRenderer.rendered(post);
+            dto.setContent(null);
+            dto.setContentHtml(rendered.html());
+            dto.setToc(rendered.toc());
+        }
+        return dto;
     }
 
-    private PostDTO toDTO(Post post) {
+    // 包级可见，供 JMH 基准测试直接调用
+    static PostDTO toDTO(Post post) {
         PostDTO dto = new PostDTO();
         dto.setId(post.getId());
         dto.setTitle(post.getTitle());
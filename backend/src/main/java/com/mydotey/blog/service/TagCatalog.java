@@ -0,0 +1,284 @@
+package com.mydotey.blog.service;
+
+import com.mydotey.blog.cache.EntityCacheEvictor;
+import com.mydotey.blog.dto.TagDTO;
+import com.mydotey.blog.entity.Tag;
+import com.mydotey.blog.repository.TagRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 内存中的标签目录：全部标签的 id、名称、slug 和已发布文章数。启动时用一次聚合查询建立，
+ * 之后按文章变更事件增量更新，/api/tags 和列表页的标签名称都从这里读取，不再查库。
+ * 文章变更后不再被任何文章引用的标签由后台线程从数据库删除。
+ */
+@Component
+public class TagCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(TagCatalog.class);
+
+    private static final String LOAD_SQL = """
+        SELECT t.id, t.name, t.slug, COUNT(p.id) AS total,
+               COUNT(CASE WHEN p.status = 'PUBLISHED' THEN 1 END) AS published
+        FROM tags t
+        LEFT JOIN post_tags pt ON pt.tag_id = t.id
+        LEFT JOIN posts p ON p.id = pt.post_id
+        GROUP BY t.id, t.name, t.slug""";
+
+    // 先锁住标签行，等正在引用它的事务（TagService.resolveTags 持有共享锁）提交，删除语句才能看到它们写入的 post_tags
+    private static final String LOCK_SQL = "SELECT id FROM tags WHERE id = ? FOR UPDATE";
+    // 计数与数据库不一致时，以数据库中仍有引用为准不删除
+    private static final String PRUNE_SQL =
+        "DELETE FROM tags WHERE id = ? AND NOT EXISTS (SELECT 1 FROM post_tags WHERE tag_id = ?)";
+
+    public enum SortOrder {
+        NAME, POPULAR
+    }
+
+    // total 含草稿，为 0 时标签成为孤儿；对外只暴露已发布数
+    private record Entry(Long id, String name, String slug, int published, int total) {
+
+        Entry plus(int publishedDelta, int totalDelta) {
+            return new Entry(id, name, slug, Math.max(0, published + publishedDelta), Math.max(0, total + totalDelta));
+        }
+
+        TagDTO toDTO() {
+            return new TagDTO(id, name, slug, published);
+        }
+    }
+
+    private static final Comparator<TagDTO> BY_NAME =
+        Comparator.comparing(TagDTO::getName, String.CASE_INSENSITIVE_ORDER).thenComparing(TagDTO::getSlug);
+    private static final Comparator<TagDTO> BY_POPULARITY =
+        Comparator.comparingInt(TagDTO::getPostCount).reversed().thenComparing(BY_NAME);
+
+    /**
+     * 不可变快照，写操作在锁内复制后整体替换，读操作无锁。排序结果在第一次读取时生成。
+     */
+    private static final class State {
+        final Map<Long, Entry> byId;
+        final Map<String, Long> idBySlug;
+        private List<TagDTO> byName;
+        private List<TagDTO> byPopularity;
+
+        State(Map<Long, Entry> byId) {
+            this.byId = Map.copyOf(byId);
+            Map<String, Long> idBySlug = new HashMap<>();
+            for (Entry entry : byId.values()) {
+                idBySlug.put(entry.slug(), entry.id());
+            }
+            this.idBySlug = Map.copyOf(idBySlug);
+        }
+
+        List<TagDTO> sorted(SortOrder order) {
+            // 并发首次读取时可能重复排序，结果相同，无需加锁
+            List<TagDTO> list = order == SortOrder.POPULAR ? byPopularity : byName;
+            if (list == null) {
+                list = byId.values().stream().map(Entry::toDTO)
+                    .sorted(order == SortOrder.POPULAR ? BY_POPULARITY : BY_NAME).toList();
+                if (order == SortOrder.POPULAR) {
+                    byPopularity = list;
+                } else {
+                    byName = list;
+                }
+            }
+            return list;
+        }
+    }
+
+    private final TagRepository tagRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate pruneTransaction;
+    private final EntityCacheEvictor cacheEvictor;
+    private final boolean pruneOrphans;
+    private final ExecutorService pruneExecutor;
+    // 用 ReentrantLock 而不是 synchronized，查库时不会钉住虚拟线程
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile State state;
+
+    public TagCatalog(TagRepository tagRepository, JdbcTemplate jdbcTemplate,
+                      PlatformTransactionManager transactionManager, EntityCacheEvictor cacheEvictor,
+                      @Value("${blog.tags.prune-orphans:true}") boolean pruneOrphans) {
+        this.tagRepository = tagRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.pruneTransaction = new TransactionTemplate(transactionManager);
+        this.pruneOrphans = pruneOrphans;
+        // 事件在原事务提交后处理，线程上仍占着原事务的连接（和数据库并发许可），在这里再开事务需要第二个连接，
+        // 并发写入时会互相等待；删除交给单独的线程，用完原连接的请求线程不受影响
+        this.pruneExecutor = pruneOrphans
+            ? Executors.newSingleThreadExecutor(Thread.ofPlatform().name("tag-prune").daemon().factory())
+            : null;
+        this.cacheEvictor = cacheEvictor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (state == null) {
+            refresh();
+        }
+    }
+
+    /**
+     * 从数据库重新建立目录。只在启动时，或数据绕过 PostService 直接写入之后调用。
+     */
+    public void refresh() {
+        lock.lock();
+        try {
+            Map<Long, Entry> entries = new HashMap<>();
+            jdbcTemplate.query(LOAD_SQL, rs -> {
+                long id = rs.getLong("id");
+                entries.put(id, new Entry(id, rs.getString("name"), rs.getString("slug"),
+                    rs.getInt("published"), rs.getInt("total")));
+            });
+            state = new State(entries);
+            log.info("Loaded tag catalog with {} tags", entries.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<TagDTO> tags(SortOrder order) {
+        return current().sorted(order);
+    }
+
+    public String name(Long tagId) {
+        Entry entry = current().byId.get(tagId);
+        if (entry == null) {
+            // 其他事务刚建的标签，文章变更事件到达之前先按 0 篇加入
+            entry = tagRepository.findById(tagId).map(this::add).orElse(null);
+        }
+        return entry == null ? null : entry.name();
+    }
+
+    public void added(Tag tag) {
+        add(tag);
+    }
+
+    public void removed(Long tagId) {
+        update(entries -> entries.remove(tagId));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        // 每个 slug 的 {已发布数, 总数} 变化
+        Map<String, int[]> deltas = new HashMap<>();
+        if (event.before() != null) {
+            for (String slug : event.before().tagSlugs()) {
+                int[] delta = deltas.computeIfAbsent(slug, s -> new int[2]);
+                delta[0] -= event.before().isPublished() ? 1 : 0;
+                delta[1]--;
+            }
+        }
+        if (event.after() != null) {
+            for (String slug : event.after().tagSlugs()) {
+                int[] delta = deltas.computeIfAbsent(slug, s -> new int[2]);
+                delta[0] += event.after().isPublished() ? 1 : 0;
+                delta[1]++;
+            }
+        }
+        deltas.values().removeIf(delta -> delta[0] == 0 && delta[1] == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        for (String slug : deltas.keySet()) {
+            if (!current().idBySlug.containsKey(slug)) {
+                tagRepository.findBySlug(slug).ifPresent(this::add);
+            }
+        }
+        List<Long> orphans = new ArrayList<>();
+        update(entries -> {
+            for (Map.Entry<String, int[]> delta : deltas.entrySet()) {
+                Long id = state.idBySlug.get(delta.getKey());
+                Entry entry = id == null ? null : entries.get(id);
+                if (entry == null) {
+                    continue;
+                }
+                Entry updated = entry.plus(delta.getValue()[0], delta.getValue()[1]);
+                entries.put(id, updated);
+                if (updated.total() == 0 && delta.getValue()[1] < 0) {
+                    orphans.add(id);
+                }
+            }
+        });
+        if (pruneOrphans && !orphans.isEmpty()) {
+            pruneExecutor.execute(() -> prune(orphans));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (pruneExecutor != null) {
+            pruneExecutor.shutdown();
+            pruneExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    // 删除失败只影响孤儿标签的清理，下次该标签计数归零时会再试
+    private void prune(List<Long> orphans) {
+        for (Long id : orphans) {
+            try {
+                Integer deleted = pruneTransaction.execute(status -> jdbcTemplate.queryForList(LOCK_SQL, Long.class, id).isEmpty()
+                    ? 0
+                    : jdbcTemplate.update(PRUNE_SQL, id, id));
+                if (deleted != null && deleted > 0) {
+                    removed(id);
+                    cacheEvictor.evictTag(id);
+                    log.debug("Pruned orphan tag {}", id);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Failed to prune orphan tag {}", id, e);
+            }
+        }
+    }
+
+    private State current() {
+        State current = state;
+        if (current == null) {
+            refresh();
+            current = state;
+        }
+        return current;
+    }
+
+    private Entry add(Tag tag) {
+        Entry entry = new Entry(tag.getId(), tag.getName(), tag.getSlug(), 0, 0);
+        update(entries -> entries.putIfAbsent(tag.getId(), entry));
+        return current().byId.get(tag.getId());
+    }
+
+    private void update(Consumer<Map<Long, Entry>> change) {
+        current();
+        lock.lock();
+        try {
+            Map<Long, Entry> entries = new HashMap<>(state.byId);
+            change.accept(entries);
+            state = new State(entries);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,32 +1,129 @@
 package com.mydotey.blog.service;
 
+import com.mydotey.blog.cache.ContentVersions;
+import com.mydotey.blog.cache.EntityCacheEvictor;
+import com.mydotey.blog.dto.TagDTO;
 import com.mydotey.blog.entity.Tag;
 import com.mydotey.blog.repository.TagRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 @Service
 public class TagService {
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // 已存在（name 或 slug 冲突）的标签跳过，并发创建同名标签时不会失败
+    private static final String UPSERT_SQL =
+        "INSERT INTO tags (name, slug, created_at) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
     private final TagRepository tagRepository;
+    private final TagCatalog tagCatalog;
+    private final ContentVersions versions;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCacheEvictor cacheEvictor;
 
-    public TagService(TagRepository tagRepository) {
+    public TagService(TagRepository tagRepository, TagCatalog tagCatalog, ContentVersions versions,
+                      JdbcTemplate jdbcTemplate, EntityCacheEvictor cacheEvictor) {
         this.tagRepository = tagRepository;
+        this.tagCatalog = tagCatalog;
+        this.versions = versions;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = cacheEvictor;
+    }
+
+    public static String slugOf(String name) {
+        return WHITESPACE.matcher(name.toLowerCase()).replaceAll("-");
+    }
+
+    public List<TagDTO> getAllTags() {
+        return tagCatalog.tags(TagCatalog.SortOrder.NAME);
+    }
+
+    public List<TagDTO> getTags(String sort) {
+        return switch (sort) {
+            case "name" -> tagCatalog.tags(TagCatalog.SortOrder.NAME);
+            case "popular" -> tagCatalog.tags(TagCatalog.SortOrder.POPULAR);
+            default -> throw new IllegalArgumentException("无效的排序方式: " + sort);
+        };
+    }
+
+    /**
+     * 按名称解析一组标签，不存在的批量创建。一次查询已有标签，一次批量插入缺失标签，再查一次取回 id。
+     * 名称不同但 slug 相同的标签视为同一个。返回 名称 -> 标签。
+     */
+    public Map<String, Tag> resolveTags(Collection<String> names) {
+        Map<String, Tag> result = new HashMap<>();
+        if (names.isEmpty()) {
+            return result;
+        }
+        Set<String> slugs = new LinkedHashSet<>();
+        for (String name : names) {
+            slugs.add(slugOf(name));
+        }
+        List<String> missing = match(names, tagRepository.findByNameInOrSlugIn(names, slugs), result);
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>();
+        Set<String> insertedSlugs = new LinkedHashSet<>();
+        for (String name : missing) {
+            if (insertedSlugs.add(slugOf(name))) {
+                rows.add(new Object[]{name, slugOf(name), now});
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        cacheEvictor.tagsInserted();
+        // 新标签在事务提交、文章变更事件到达时加入 TagCatalog
+        match(missing, tagRepository.findByNameInOrSlugIn(missing, insertedSlugs), result);
+        return result;
     }
 
-    public List<Tag> getAllTags() {
-        return tagRepository.findAll();
+    private static List<String> match(Collection<String> names, List<Tag> tags, Map<String, Tag> result) {
+        Map<String, Tag> byName = new HashMap<>();
+        Map<String, Tag> bySlug = new HashMap<>();
+        for (Tag tag : tags) {
+            byName.put(tag.getName(), tag);
+            bySlug.put(tag.getSlug(), tag);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String name : names) {
+            Tag tag = byName.getOrDefault(name, bySlug.get(slugOf(name)));
+            if (tag != null) {
+                result.put(name, tag);
+            } else {
+                missing.add(name);
+            }
+        }
+        return missing;
     }
 
     public Tag createTag(String name) {
         Tag tag = new Tag();
         tag.setName(name);
-        tag.setSlug(name.toLowerCase().replaceAll("\\s+", "-"));
-        return tagRepository.save(tag);
+        tag.setSlug(slugOf(name));
+        Tag saved = tagRepository.save(tag);
+        tagCatalog.added(saved);
+        versions.tagsChanged();
+        return saved;
     }
 
     public void deleteTag(Long id) {
         tagRepository.deleteById(id);
+        tagCatalog.removed(id);
+        versions.tagsChanged();
     }
 }
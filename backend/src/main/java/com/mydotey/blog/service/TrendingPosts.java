@@ -0,0 +1,275 @@
+package com.mydotey.blog.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 热门文章排行。每篇文章一个按时间分桶的环形计数器（默认 10 分钟一桶，保留 24 小时），
+ * 阅读时只做原子自增；定时按半衰期衰减求和，选出前 N 篇发布为不可变的排行。
+ * 跟踪的文章数有上限，没有近期阅读或排在末尾的文章会被移出，内存不随文章总数增长。
+ * 计数定期和关闭时写入检查点文件，重启后继续累计。
+ */
+@Component
+public class TrendingPosts {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingPosts.class);
+
+    private static final int CHECKPOINT_VERSION = 1;
+
+    /**
+     * 一次计算出的排行，按分数从高到低。version 每次刷新递增，可用作缓存键。
+     */
+    public record Ranking(long version, long[] ids, double[] scores) {
+
+        public List<Long> top(int n) {
+            List<Long> result = new ArrayList<>(Math.min(n, ids.length));
+            for (int i = 0; i < ids.length && i < n; i++) {
+                result.add(ids[i]);
+            }
+            return result;
+        }
+    }
+
+    // stamps[i] 为槽位 i 当前计数所属的桶号（时间 / 桶宽），旧桶在下一次写入时复用
+    private static final class Window {
+        final AtomicLongArray stamps;
+        final AtomicIntegerArray counts;
+
+        Window(int buckets) {
+            stamps = new AtomicLongArray(buckets);
+            counts = new AtomicIntegerArray(buckets);
+        }
+
+        void add(long bucket, int delta) {
+            int slot = (int) Math.floorMod(bucket, (long) stamps.length());
+            long stamp = stamps.get(slot);
+            if (stamp != bucket && stamps.compareAndSet(slot, stamp, bucket)) {
+                // 与同一时刻的其他自增竞争时可能丢掉个别计数，对排行没有影响
+                counts.set(slot, 0);
+            }
+            counts.addAndGet(slot, delta);
+        }
+
+        double score(long current, double[] decay) {
+            double score = 0;
+            for (int slot = 0; slot < stamps.length(); slot++) {
+                long age = current - stamps.get(slot);
+                if (age >= 0 && age < decay.length) {
+                    score += counts.get(slot) * decay[(int) age];
+                }
+            }
+            return score;
+        }
+    }
+
+    private record Scored(long id, double score) {
+    }
+
+    private final long bucketMillis;
+    private final int buckets;
+    // decay[age] = 0.5 ^ (age * 桶宽 / 半衰期)
+    private final double[] decay;
+    private final int size;
+    private final int maxTracked;
+    private final Path checkpointPath;
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+    private volatile Ranking ranking = new Ranking(0, new long[0], new double[0]);
+
+    public TrendingPosts(
+        @Value("${blog.trending.bucket:10m}") Duration bucket,
+        @Value("${blog.trending.buckets:144}") int buckets,
+        @Value("${blog.trending.half-life:6h}") Duration halfLife,
+        @Value("${blog.trending.size:50}") int size,
+        @Value("${blog.trending.max-tracked:5000}") int maxTracked,
+        @Value("${blog.trending.checkpoint-path:}") String checkpointPath
+    ) {
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = buckets;
+        this.decay = new double[buckets];
+        for (int age = 0; age < buckets; age++) {
+            decay[age] = Math.pow(0.5, (double) age * bucketMillis / halfLife.toMillis());
+        }
+        this.size = size;
+        this.maxTracked = maxTracked;
+        this.checkpointPath = checkpointPath.isBlank() ? null : Path.of(checkpointPath);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (checkpointPath != null && Files.exists(checkpointPath)) {
+            try {
+                int loaded = loadCheckpoint();
+                log.info("Loaded trending checkpoint with {} posts", loaded);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to load trending checkpoint from {}", checkpointPath, e);
+            }
+        }
+        refresh();
+    }
+
+    public void record(Long postId) {
+        Window window = windows.get(postId);
+        if (window == null) {
+            // 两次刷新之间新出现的文章过多时暂不跟踪，保证内存有上限
+            if (windows.size() >= maxTracked * 2) {
+                return;
+            }
+            window = windows.computeIfAbsent(postId, id -> new Window(buckets));
+        }
+        window.add(currentBucket(), 1);
+    }
+
+    public Ranking ranking() {
+        return ranking;
+    }
+
+    public int maxSize() {
+        return size;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostChanged(PostChangedEvent event) {
+        if (event.after() == null || !event.after().isPublished()) {
+            windows.remove(event.postId());
+        }
+    }
+
+    /**
+     * 重新计算排行，同时移出没有近期阅读的文章，并把跟踪数压回 max-tracked 以内。
+     */
+    @Scheduled(fixedDelayString = "${blog.trending.refresh-interval:30000}")
+    public void refresh() {
+        long current = currentBucket();
+        int keep = Math.max(size, maxTracked);
+        // 小顶堆保留分数最高的 keep 篇，其中前 size 篇进入排行
+        PriorityQueue<Scored> heap = new PriorityQueue<>((a, b) -> Double.compare(a.score(), b.score()));
+        List<Long> evicted = new ArrayList<>();
+        windows.forEach((id, window) -> {
+            double score = window.score(current, decay);
+            if (score <= 0) {
+                evicted.add(id);
+                return;
+            }
+            heap.add(new Scored(id, score));
+            if (heap.size() > keep) {
+                evicted.add(heap.poll().id());
+            }
+        });
+        evicted.forEach(windows::remove);
+
+        while (heap.size() > size) {
+            heap.poll();
+        }
+        int n = heap.size();
+        long[] ids = new long[n];
+        double[] scores = new double[n];
+        for (int i = n - 1; i >= 0; i--) {
+            Scored scored = heap.poll();
+            ids[i] = scored.id();
+            scores[i] = scored.score();
+        }
+        ranking = new Ranking(ranking.version() + 1, ids, scores);
+    }
+
+    @Scheduled(fixedDelayString = "${blog.trending.checkpoint-interval:300000}",
+        initialDelayString = "${blog.trending.checkpoint-interval:300000}")
+    public void checkpoint() {
+        if (checkpointPath == null) {
+            return;
+        }
+        try {
+            writeCheckpoint();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write trending checkpoint to {}", checkpointPath, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / bucketMillis;
+    }
+
+    // 只写仍在窗口内且有计数的桶；桶宽或桶数变化后旧检查点作废
+    private void writeCheckpoint() throws IOException {
+        Path parent = checkpointPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, "trending", ".tmp");
+        long current = currentBucket();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeLong(bucketMillis);
+            out.writeInt(buckets);
+            List<Map.Entry<Long, Window>> entries = new ArrayList<>(windows.entrySet());
+            out.writeInt(entries.size());
+            for (Map.Entry<Long, Window> entry : entries) {
+                Window window = entry.getValue();
+                List<long[]> live = new ArrayList<>();
+                for (int slot = 0; slot < buckets; slot++) {
+                    long stamp = window.stamps.get(slot);
+                    int views = window.counts.get(slot);
+                    if (views > 0 && current - stamp < buckets) {
+                        live.add(new long[]{stamp, views});
+                    }
+                }
+                out.writeLong(entry.getKey());
+                out.writeInt(live.size());
+                for (long[] bucket : live) {
+                    out.writeLong(bucket[0]);
+                    out.writeInt((int) bucket[1]);
+                }
+            }
+        }
+        Files.move(tmp, checkpointPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int loadCheckpoint() throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointPath)))) {
+            if (in.readInt() != CHECKPOINT_VERSION || in.readLong() != bucketMillis || in.readInt() != buckets) {
+                return 0;
+            }
+            long current = currentBucket();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                Window window = windows.computeIfAbsent(id, key -> new Window(buckets));
+                int live = in.readInt();
+                for (int j = 0; j < live; j++) {
+                    long stamp = in.readLong();
+                    int views = in.readInt();
+                    if (current - stamp < buckets) {
+                        window.add(stamp, views);
+                    }
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.mydotey.blog.service;
+
+import com.mydotey.blog.cache.EntityCacheEvictor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文章浏览量的写缓冲计数器。读路径只在内存中累加，定时把增量批量写回 posts.views。
+ */
+@Component
+public class ViewCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(ViewCounter.class);
+
+    private static final String FLUSH_SQL = "UPDATE posts SET views = views + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityCacheEvictor cacheEvictor;
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final Timer flushTimer;
+
+    public ViewCounter(JdbcTemplate jdbcTemplate, EntityCacheEvictor cacheEvictor, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictor = cacheEvictor;
+        this.meterRegistry = meterRegistry;
+        this.flushTimer = Timer.builder("blog.views.flush")
+            .description("Time spent writing buffered view deltas to the database")
+            .register(meterRegistry);
+    }
+
+    // 构造完成后再注册，避免把未初始化完的 this 交给 MeterRegistry
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("blog.views.pending", this, ViewCounter::pendingTotal)
+            .description("View increments not yet written to the database")
+            .register(meterRegistry);
+    }
+
+    public void increment(Long postId) {
+        LongAdder adder = pending.get(postId);
+        if (adder == null) {
+            adder = pending.computeIfAbsent(postId, id -> new LongAdder());
+        }
+        adder.increment();
+    }
+
+    public long pending(Long postId) {
+        LongAdder adder = pending.get(postId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long pendingTotal() {
+        long total = 0;
+        for (LongAdder adder : pending.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.views.flush-interval:5000}")
+    public void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        pending.forEach((postId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                batch.add(new Object[]{delta, postId});
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            flushTimer.record(() -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            // 二级缓存中的文章实体带着旧的浏览量，写回后移除
+            cacheEvictor.evictPosts(batch.stream().map(row -> (Long) row[1]).toList());
+        } catch (RuntimeException e) {
+            // 写入失败时把增量放回去，下次再试
+            for (Object[] row : batch) {
+                pending.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+            }
+            log.warn("Failed to flush {} view deltas, will retry", batch.size(), e);
+        }
+    }
+
+    public void remove(Long postId) {
+        pending.remove(postId);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
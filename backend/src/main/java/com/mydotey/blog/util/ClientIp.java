@@ -0,0 +1,18 @@
+package com.mydotey.blog.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public final class ClientIp {
+
+    private ClientIp() {
+    }
+
+    /**
+     * 连接的远端地址。X-Forwarded-For 由客户端任意填写，这里不直接读取；部署在反向代理之后时配置
+     * server.forward-headers-strategy=native 和 server.tomcat.remoteip.internal-proxies，
+     * 由 Tomcat 的 RemoteIpValve 从右往左跳过受信任的代理，把第一个不受信任的地址设为远端地址。
+     */
+    public static String resolve(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+}
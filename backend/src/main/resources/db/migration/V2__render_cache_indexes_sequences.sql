@@ -0,0 +1,19 @@
+-- 基线之后的表结构变更。已有数据库可能已由 ddl-auto: update 或新版 init-db.sql 建好其中一部分，所以都写成可重复执行
+
+-- 预渲染的 Markdown：正文摘要（判断是否需要重新渲染）、HTML 和目录
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS content_html TEXT;
+ALTER TABLE posts ADD COLUMN IF NOT EXISTS toc TEXT;
+
+-- 列表按 (created_at, id) 排序和游标分页
+DROP INDEX IF EXISTS idx_posts_created_at;
+CREATE INDEX idx_posts_created_at ON posts(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_posts_status_created_at ON posts(status, created_at DESC, id DESC);
+
+-- 评论树按文章读取已审核评论并按时间排序，前缀已覆盖按文章查询
+CREATE INDEX IF NOT EXISTS idx_comments_post_status_created_at ON comments(post_id, status, created_at);
+DROP INDEX IF EXISTS idx_comments_post_id;
+
+-- 文章和评论 id 由应用按 50 个一段预取（allocationSize = 50），序列步长必须一致，否则各实例分到的 id 段会重叠
+ALTER SEQUENCE posts_id_seq INCREMENT BY 50;
+ALTER SEQUENCE comments_id_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- 还没有任何管理员时创建默认管理员 admin / admin123（与 DataInitializer 相同），请登录后立即修改密码
+-- 生产环境启动时不再运行 DataInitializer，账号在这里只创建一次
+INSERT INTO admins (username, password_hash)
+SELECT 'admin', '$2a$10$cwCUCWLb4fKnYovlMwJtCOwkPE9.tSDvF5Jfms1/yYeXYQDd6pCk.'
+WHERE NOT EXISTS (SELECT 1 FROM admins);
@@ -0,0 +1,73 @@
+package com.mydotey.blog.service;
+
+import com.mydotey.blog.dto.CreatePostRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 文章列表的 SQL 条数不随每页条数增长（没有 N+1）。
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PostServiceQueryCountTest {
+
+    // 多于最大页大小，两种页大小下都是满页，都会执行 count 查询
+    private static final int POSTS = 60;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (postService.getPublishedPosts(PageRequest.of(0, 1)).getTotalElements() > 0) {
+            return;
+        }
+        for (int i = 1; i <= POSTS; i++) {
+            CreatePostRequest request = new CreatePostRequest();
+            request.setTitle("Post " + i);
+            request.setSlug("post-" + i);
+            request.setContent("content " + i);
+            request.setSummary("summary " + i);
+            request.setStatus("PUBLISHED");
+            request.setTagNames(Set.of("common", "group-" + (i % 7), "tag-" + i));
+            postService.createPost(request);
+        }
+    }
+
+    @Test
+    void publishedPostsStatementCountDoesNotDependOnPageSize() {
+        long small = statementsFor(1);
+        long large = statementsFor(50);
+
+        assertThat(small).isPositive();
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long statementsFor(int size) {
+        statistics.clear();
+        Page<?> page = postService.getPublishedPosts(PageRequest.of(0, size, Sort.by("createdAt").descending()));
+        long statements = statistics.getPrepareStatementCount();
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getTotalElements()).isEqualTo(POSTS);
+        return statements;
+    }
+}
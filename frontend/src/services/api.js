@@ -12,9 +12,13 @@ api.interceptors.request.use(config => {
 });
 // Public APIs
 export const getPosts = (params) => api.get('/posts', { params });
+export const getPostsAfter = (params) => api.get('/posts', { params: { ...params, after: params.after ?? '' } });
 export const getPost = (slug) => api.get(`/posts/${slug}`);
+export const getRenderedPost = (slug) => api.get(`/posts/${slug}`, { params: { format: 'html' } });
+export const getRelatedPosts = (slug) => api.get(`/posts/${slug}/related`);
 export const getTags = () => api.get('/tags');
 export const getComments = (postId) => api.get('/comments', { params: { postId } });
+export const getCommentTree = (postId, page = 0, size = 20) => api.get('/comments/tree', { params: { postId, page, size } });
 export const createComment = (data) => api.post('/comments', data);
 // Admin APIs
 export const adminGetPosts = (page = 0, size = 10) => api.get('/admin/posts', { params: { page, size } });
@@ -18,6 +18,9 @@ export interface Post {
   title: string
   slug: string
   content: string
+  // 仅 getRenderedPost 返回，此时 content 为空
+  contentHtml?: string
+  toc?: TocEntry[]
   summary: string
   coverImage?: string
   status: string
@@ -27,6 +30,15 @@ export interface Post {
   updatedAt: string
 }
 
+export interface TocEntry {
+  level: number
+  id: string
+  text: string
+}
+
+// 列表接口返回的摘要，不含正文
+export type PostSummary = Omit<Post, 'content'>
+
 export interface Comment {
   id: number
   postId: number
@@ -37,10 +49,31 @@ export interface Comment {
   createdAt: string
 }
 
+export interface CommentNode {
+  id: number
+  parentId?: number
+  authorName: string
+  content: string
+  createdAt: string
+  replyCount: number
+  replies: CommentNode[]
+}
+
 export interface Tag {
   id: number
   name: string
   slug: string
+  postCount?: number
+}
+
+export interface RelatedPost {
+  id: number
+  title: string
+  slug: string
+  summary?: string
+  coverImage?: string
+  createdAt: string
+  score: number
 }
 
 export interface PageResponse<T> {
@@ -51,19 +84,39 @@ export interface PageResponse<T> {
   size: number
 }
 
+export interface CursorPage<T> {
+  content: T[]
+  nextCursor: string | null
+  hasNext: boolean
+  totalElements?: number | null
+}
+
 // Public APIs
 export const getPosts = (params?: { tag?: string; search?: string; page?: number; size?: number }) =>
-  api.get<PageResponse<Post>>('/posts', { params })
+  api.get<PageResponse<PostSummary>>('/posts', { params })
+
+export const getPostsAfter = (params: { after?: string | null; tag?: string; size?: number; withTotal?: boolean }) =>
+  api.get<CursorPage<PostSummary>>('/posts', { params: { ...params, after: params.after ?? '' } })
 
 export const getPost = (slug: string) =>
   api.get<Post>(`/posts/${slug}`)
 
+// 服务端渲染好的正文和目录
+export const getRenderedPost = (slug: string) =>
+  api.get<Post>(`/posts/${slug}`, { params: { format: 'html' } })
+
+export const getRelatedPosts = (slug: string) =>
+  api.get<RelatedPost[]>(`/posts/${slug}/related`)
+
 export const getTags = () =>
   api.get<Tag[]>('/tags')
 
 export const getComments = (postId: number) =>
   api.get<Comment[]>('/comments', { params: { postId } })
 
+export const getCommentTree = (postId: number, page = 0, size = 20) =>
+  api.get<PageResponse<CommentNode>>('/comments/tree', { params: { postId, page, size } })
+
 export const createComment = (data: {
   postId: number
   parentId?: number
@@ -74,7 +127,7 @@ export const createComment = (data: {
 
 // Admin APIs
 export const adminGetPosts = (page = 0, size = 10) =>
-  api.get<PageResponse<Post>>('/admin/posts', { params: { page, size } })
+  api.get<PageResponse<PostSummary>>('/admin/posts', { params: { page, size } })
 
 export const adminGetPost = (id: number) =>
   api.get<Post>(`/admin/posts/${id}`)
@@ -0,0 +1,59 @@
+#!/bin/bash
+
+# 生成 AppCDS 类数据归档，缩短启动时的类加载和校验时间
+# 先把 bootJar 解压成普通 jar + lib 目录（CDS 不支持嵌套 jar），再做一次训练运行：
+# 启动应用、请求几个公开接口、正常退出，退出时把加载过的类写入 app.jsa。
+# 训练运行会连接 application.yml / prod profile 中配置的数据库并执行迁移。
+#
+# 用法: scripts/build-cds.sh [应用参数...]
+# 例如: scripts/build-cds.sh --spring.profiles.active=prod
+# 产物: backend/build/cds/app/app.jar（解压后的应用）和 backend/build/cds/app.jsa
+# 运行: java -XX:SharedArchiveFile=backend/build/cds/app.jsa -jar backend/build/cds/app/app.jar --spring.profiles.active=prod
+# 归档与 JDK 版本和 jar 绑定，升级 JDK 或重新构建后要重新生成；不匹配时 JVM 只打印警告并照常启动。
+
+set -e
+
+PORT=${PORT:-8080}
+
+cd "$(dirname "$0")/../backend"
+
+echo "构建后端..."
+./gradlew -q bootJar -x test
+JAR=$(ls build/libs/*.jar | grep -v plain | head -1)
+
+rm -rf build/cds
+java -Djarmode=tools -jar "$JAR" extract --destination build/cds/app > /dev/null
+mv build/cds/app/$(basename "$JAR") build/cds/app/app.jar
+
+echo "训练运行..."
+java -XX:ArchiveClassesAtExit=build/cds/app.jsa -jar build/cds/app/app.jar --server.port=$PORT "$@" \
+    > build/cds/training.log 2>&1 &
+pid=$!
+trap "kill $pid 2>/dev/null" EXIT
+
+for i in $(seq 1 120); do
+    if curl -s -o /dev/null -f "http://localhost:$PORT/api/posts?page=0&size=1"; then
+        break
+    fi
+    if ! kill -0 $pid 2>/dev/null; then
+        echo "应用启动失败，见 backend/build/cds/training.log"
+        exit 1
+    fi
+    sleep 1
+done
+
+# 覆盖常用接口，让处理请求用到的类也进入归档
+for path in "/api/posts?page=0&size=10" "/api/posts?size=10&after=" "/api/tags" "/api/posts/trending" \
+    "/api/posts?search=java" "/actuator/health"; do
+    curl -s -o /dev/null "http://localhost:$PORT$path" || true
+done
+
+kill $pid
+wait $pid 2>/dev/null || true
+trap - EXIT
+
+if [ ! -f build/cds/app.jsa ]; then
+    echo "未生成归档，见 backend/build/cds/training.log"
+    exit 1
+fi
+echo "已生成 backend/build/cds/app.jsa ($(du -h build/cds/app.jsa | cut -f1))"
@@ -0,0 +1,61 @@
+#!/bin/bash
+
+# 对比平台线程与虚拟线程两种模式下的吞吐量和 p99 延迟
+# 依赖 wrk（https://github.com/wg/wrk），数据库按 application.yml 配置，需先有至少一篇已发布文章
+#
+# 用法: scripts/compare-threads.sh [并发连接数] [压测时长] [URL 路径]
+# 例如: scripts/compare-threads.sh 400 30s "/api/comments?postId=1"
+
+set -e
+
+CONNECTIONS=${1:-400}
+DURATION=${2:-30s}
+URL_PATH=${3:-/api/comments?postId=1}
+PORT=${PORT:-8080}
+THREADS=${WRK_THREADS:-4}
+
+cd "$(dirname "$0")/../backend"
+
+if ! command -v wrk > /dev/null 2>&1; then
+    echo "未找到 wrk，请先安装"
+    exit 1
+fi
+
+echo "构建后端..."
+./gradlew -q bootJar -x test
+JAR=$(ls build/libs/*.jar | grep -v plain | head -1)
+
+run_mode() {
+    local virtual=$1
+    local log=build/compare-threads-$virtual.log
+
+    java -jar "$JAR" --server.port=$PORT --spring.threads.virtual.enabled=$virtual > "$log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null" EXIT
+
+    for i in $(seq 1 60); do
+        if curl -s -o /dev/null "http://localhost:$PORT/actuator/health"; then
+            break
+        fi
+        sleep 1
+    done
+
+    # 预热 JIT 和连接池，结果丢弃
+    wrk -t$THREADS -c$CONNECTIONS -d10s "http://localhost:$PORT$URL_PATH" > /dev/null
+    local result
+    result=$(wrk -t$THREADS -c$CONNECTIONS -d$DURATION --latency "http://localhost:$PORT$URL_PATH")
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+    trap - EXIT
+
+    local rps p99
+    rps=$(echo "$result" | awk '/Requests\/sec/ {print $2}')
+    p99=$(echo "$result" | awk '$1 == "99%" {print $2}')
+    printf "%-10s %12s %10s\n" "$([ "$virtual" = true ] && echo virtual || echo platform)" "$rps" "$p99"
+}
+
+echo "URL: $URL_PATH  连接数: $CONNECTIONS  时长: $DURATION"
+printf "%-10s %12s %10s\n" "mode" "req/s" "p99"
+run_mode false
+run_mode true
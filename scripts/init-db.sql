@@ -1,3 +1,5 @@
+-- 表结构与依次执行 backend/src/main/resources/db/migration 中 V1、V2 之后相同，之后的变更以迁移脚本的形式添加
+
 -- 创建数据库
 CREATE DATABASE aiblog;
 
@@ -18,6 +20,9 @@ CREATE TABLE posts (
     title VARCHAR(200) NOT NULL,
     slug VARCHAR(200) UNIQUE NOT NULL,
     content TEXT NOT NULL,
+    content_hash VARCHAR(64),
+    content_html TEXT,
+    toc TEXT,
     summary VARCHAR(500),
     cover_image VARCHAR(500),
     status VARCHAR(20) DEFAULT 'DRAFT',
@@ -28,7 +33,8 @@ CREATE TABLE posts (
 
 CREATE INDEX idx_posts_slug ON posts(slug);
 CREATE INDEX idx_posts_status ON posts(status);
-CREATE INDEX idx_posts_created_at ON posts(created_at DESC);
+CREATE INDEX idx_posts_created_at ON posts(created_at DESC, id DESC);
+CREATE INDEX idx_posts_status_created_at ON posts(status, created_at DESC, id DESC);
 
 -- 创建标签表
 CREATE TABLE tags (
@@ -59,5 +65,10 @@ CREATE TABLE comments (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
-CREATE INDEX idx_comments_post_id ON comments(post_id);
+-- 文章和评论 id 由应用按 50 个一段预取，以便批量插入
+ALTER SEQUENCE posts_id_seq INCREMENT BY 50;
+ALTER SEQUENCE comments_id_seq INCREMENT BY 50;
+
+-- 评论树按文章读取已审核评论并按时间排序
+CREATE INDEX idx_comments_post_status_created_at ON comments(post_id, status, created_at);
 CREATE INDEX idx_comments_status ON comments(status);
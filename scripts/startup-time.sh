@@ -0,0 +1,70 @@
+#!/bin/bash
+
+# 对比启动时间：默认配置、prod profile、prod profile + AppCDS 归档
+# 每种模式启动若干次，记录从启动进程到第一个请求（GET /api/posts）成功返回的时间，
+# 以及 Spring Boot 日志中的 "Started ... in" 时间，输出中位数和最小值。
+# 数据库按 application.yml 配置，prod profile 会执行迁移，建议用单独的库。
+#
+# 用法: scripts/startup-time.sh [每种模式的次数]
+# 例如: scripts/startup-time.sh 10
+
+set -e
+
+ITERATIONS=${1:-5}
+PORT=${PORT:-8080}
+URL="http://localhost:$PORT/api/posts?page=0&size=1"
+
+cd "$(dirname "$0")/.."
+scripts/build-cds.sh --spring.profiles.active=prod
+cd backend
+
+now_ms() {
+    date +%s%3N
+}
+
+# 输出: 到第一个请求的毫秒数 Spring 报告的启动秒数
+run_once() {
+    local log=build/cds/startup.log
+    local start
+    start=$(now_ms)
+    java "$@" --server.port=$PORT > "$log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null" EXIT
+    until curl -s -o /dev/null -f "$URL"; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "应用启动失败，见 backend/$log" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    local first=$(( $(now_ms) - start ))
+    kill $pid
+    wait $pid 2>/dev/null || true
+    trap - EXIT
+    local started
+    started=$(sed -n 's/.*Started BlogApplication in \([0-9.]*\) seconds.*/\1/p' "$log")
+    echo "$first ${started:-?}"
+}
+
+run_mode() {
+    local name=$1
+    shift
+    local firsts=() starts=()
+    for i in $(seq 1 "$ITERATIONS"); do
+        read -r first started < <(run_once "$@")
+        firsts+=("$first")
+        starts+=("$started")
+    done
+    local sorted median min
+    sorted=($(printf '%s\n' "${firsts[@]}" | sort -n))
+    median=${sorted[$(( ${#sorted[@]} / 2 ))]}
+    min=${sorted[0]}
+    sorted=($(printf '%s\n' "${starts[@]}" | sort -n))
+    printf "%-10s %14s %10s %12s\n" "$name" "$median" "$min" "${sorted[$(( ${#sorted[@]} / 2 ))]}"
+}
+
+echo "每种模式 $ITERATIONS 次"
+printf "%-10s %14s %10s %12s\n" "mode" "first-req(ms)" "min(ms)" "started(s)"
+run_mode default -jar build/cds/app/app.jar
+run_mode prod -jar build/cds/app/app.jar --spring.profiles.active=prod
+run_mode prod+cds -XX:SharedArchiveFile=build/cds/app.jsa -jar build/cds/app/app.jar --spring.profiles.active=prod
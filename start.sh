@@ -61,13 +61,34 @@ spring:
     url: jdbc:postgresql://${DB_HOST}:${DB_PORT}/${DB_NAME}
     username: ${DB_USER}
     password: ${DB_PASSWORD}
+    hikari:
+      # 连接数按数据库能承受的并发设置（经验值：CPU 核数 * 2 + 磁盘数），而不是按请求线程数
+      maximum-pool-size: 20
+      minimum-idle: 5
+      connection-timeout: 10000
+  flyway:
+    # 开发环境由 Hibernate 自动建表；prod profile 改用 db/migration 中的版本化迁移
+    enabled: false
   jpa:
+    # 不在整个请求期间占用数据库连接
+    open-in-view: false
     hibernate:
       ddl-auto: update
     show-sql: false
     properties:
       hibernate:
         format_sql: true
+        jdbc:
+          batch_size: 50
+        order_inserts: true
+        id:
+          sequence:
+            # 已有库的序列步长不是 50 时按库里的步长分配 id，避免主键冲突
+            increment_size_mismatch_strategy: fix
+  threads:
+    virtual:
+      # Tomcat 请求线程、定时任务等使用虚拟线程
+      enabled: true
   security:
     jwt:
       secret: your-secret-key-change-in-production-min-256-bits-long-for-security
@@ -75,10 +96,34 @@ spring:
 
 server:
   port: 8080
+  # 客户端 IP（限流、评论记录）默认取连接地址。部署在 nginx 等反向代理之后时改为 native，
+  # 并把代理地址写进 tomcat.remoteip.internal-proxies（正则），只有来自这些地址的 X-Forwarded-For 才被采用
+  forward-headers-strategy: none
+
+management:
+  endpoints:
+    web:
+      exposure:
+        # prometheus 需要 blog.metrics 中配置的账号（HTTP Basic），health 公开
+        include: health,prometheus
+  metrics:
+    tags:
+      application: ai-blog
+    distribution:
+      # 导出直方图桶，由 Prometheus 端计算任意接口/查询的分位数
+      percentiles-histogram:
+        http.server.requests: true
+        spring.data.repository.invocations: true
 
 logging:
   level:
     com.mydotey.blog: INFO
+
+blog:
+  metrics:
+    # /actuator/prometheus 的抓取账号，密码为空时不开放
+    username: prometheus
+    password: \${BLOG_METRICS_PASSWORD:}
 EOF
 echo -e "${GREEN}✓ 后端配置已更新${NC}"
 echo ""